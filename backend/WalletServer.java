@@ -3,9 +3,10 @@ import handlers.*;
 import com.sun.net.httpserver.HttpServer;
 import java.io.IOException;
 import java.net.InetSocketAddress;
-import java.util.concurrent.Executors;
 public class WalletServer {
     private static final int DEFAULT_PORT = 8080;
+    private static final long DEFAULT_SNAPSHOT_INTERVAL_MS = 5 * 60 * 1000;
+    private static final int DEFAULT_EVENT_LISTENERS = 1024;
     private final HttpServer server;
     private final WalletSecurityManager securityManager;
     private final UserManager userManager;
@@ -13,11 +14,20 @@ public class WalletServer {
     private final OfflineTransactionManager offlineTransactionManager;
     private final OfflineFraudDetector offlineFraudDetector;
     private final OfflineSyncEngine offlineSyncEngine;
+    private final RequestExecutor requestExecutor;
+    private final MaintenanceService maintenanceService;
+    private final WalletEventsHandler eventsHandler;
+    private final MetricsRegistry metricsRegistry = new MetricsRegistry();
     public WalletServer(int port) throws IOException {
         this.server = HttpServer.create(new InetSocketAddress(port), 0);
         this.securityManager = new WalletSecurityManager();
         this.userManager = new UserManager(securityManager);
         this.transactionEngine = new TransactionEngine(userManager);
+        long snapshotIntervalMs = DEFAULT_SNAPSHOT_INTERVAL_MS;
+        if (System.getenv("WALLET_SNAPSHOT_INTERVAL_MS") != null) {
+            snapshotIntervalMs = Long.parseLong(System.getenv("WALLET_SNAPSHOT_INTERVAL_MS"));
+        }
+        transactionEngine.startCheckpointing(snapshotIntervalMs);
         this.offlineTransactionManager = new OfflineTransactionManager();
         this.offlineFraudDetector = new OfflineFraudDetector();
         this.offlineSyncEngine = new OfflineSyncEngine(
@@ -26,61 +36,147 @@ public class WalletServer {
                 offlineTransactionManager,
                 offlineFraudDetector
         );
+        this.maintenanceService = MaintenanceService.fromEnvironment();
+        maintenanceService.register(transactionEngine.getFraudDetector().getRuleEngine());
+        maintenanceService.register(offlineFraudDetector);
+        maintenanceService.register(offlineTransactionManager);
+        maintenanceService.register(transactionEngine.getEvents());
+        maintenanceService.start();
+        this.requestExecutor = RequestExecutor.fromEnvironment();
+        this.eventsHandler = new WalletEventsHandler(
+                userManager,
+                securityManager,
+                transactionEngine.getEvents(),
+                eventListenerLimit()
+        );
         setupEndpoints();
-        server.setExecutor(Executors.newFixedThreadPool(10));
+        server.setExecutor(requestExecutor);
     }
     private void setupEndpoints() {
-        server.createContext(
+        register(
                 "/api/auth/register",
                 new RegisterHandler(userManager)
         );
-        server.createContext(
+        register(
                 "/api/auth/login",
                 new LoginHandler(userManager)
         );
-        server.createContext(
+        register(
                 "/api/auth/verify-pin",
                 new VerifyPinHandler(userManager, securityManager)
         );
-        server.createContext(
+        register(
                 "/api/wallet/balance",
                 new BalanceHandler(userManager, securityManager)
         );
-        server.createContext(
+        register(
                 "/api/wallet/add-money",
                 new AddMoneyHandler(securityManager, transactionEngine)
         );
-        server.createContext(
+        register(
                 "/api/wallet/withdraw",
                 new WithdrawHandler(securityManager, transactionEngine)
         );
-        server.createContext(
+        register(
                 "/api/wallet/transfer",
                 new TransferHandler(userManager, securityManager, transactionEngine)
         );
-        server.createContext(
+        register(
+                "/api/wallet/transfer/batch",
+                new TransferBatchHandler(userManager, securityManager, transactionEngine)
+        );
+        register("/api/wallet/events", eventsHandler);
+        register(
                 "/api/transactions/history",
                 new TransactionHistoryHandler(securityManager, transactionEngine)
         );
-        server.createContext(
+        register(
                 "/api/bank/balance",
                 new BankBalanceHandler(userManager, securityManager)
         );
-        server.createContext(
+        register(
                 "/api/offline/sync",
                 new SyncHandler(securityManager, offlineSyncEngine)
         );
+        register(
+                "/api/metrics",
+                new MetricsHandler(
+                        metricsRegistry,
+                        transactionEngine.getMetrics(),
+                        requestExecutor,
+                        securityManager.getSessionStore(),
+                        maintenanceService
+                )
+        );
+        register(
+                "/api/admin/traces",
+                new TraceHandler(transactionEngine.getTracer())
+        );
+    }
+    private int eventListenerLimit() {
+        if (System.getenv("WALLET_EVENTS_MAX_LISTENERS") != null) {
+            return Integer.parseInt(System.getenv("WALLET_EVENTS_MAX_LISTENERS"));
+        }
+        return DEFAULT_EVENT_LISTENERS;
+    }
+    private void register(String path, BaseHandler handler) {
+        handler.setMetrics(metricsRegistry.endpoint(path));
+        server.createContext(path, handler);
     }
     public void start() {
         server.start();
         System.out.println("✅ Wallet Server started");
-        System.out.println("🌐 Base URL: http://0.0.0.0:" + server.getAddress().getPort());
+        System.out.println("🌐 Base URL: http://0.0.0.0:" + getPort());
         System.out.println("🔐 Security enabled");
         System.out.println("🛡️ Fraud detection active");
         System.out.println("📴 Offline sync supported");
+        System.out.println("📈 Metrics at /api/metrics");
+        System.out.println(
+                "📡 Wallet events at /api/wallet/events (max " + eventsHandler.getMaxListeners() + " listeners)"
+        );
+        OperationTracer tracer = transactionEngine.getTracer();
+        if (tracer.isEnabled()) {
+            System.out.println(
+                    "🔬 Tracing money movements slower than " + tracer.getSlowThresholdMs() + " ms"
+            );
+        }
+        if (transactionEngine.getBalanceMode() == TransactionEngine.BalanceMode.LOCK_FREE) {
+            System.out.println("⚛️ Lock-free balance updates for add-money and withdraw");
+        }
+        if (requestExecutor.getMode() != requestExecutor.getRequestedMode()) {
+            System.err.println("⚠️ Virtual threads unavailable on this JVM, falling back to a platform thread pool");
+        }
+        System.out.println(
+                "🧵 Executor: " + requestExecutor.getMode()
+                        + " (max " + requestExecutor.getMaxConcurrency() + " concurrent requests)"
+        );
+        RecoveryReport recovery = transactionEngine.getRecoveryReport();
+        System.out.println(
+                "⏱️ Ledger recovered in " + recovery.getDurationMs() + " ms"
+                        + " (snapshot #" + recovery.getSnapshotSequence()
+                        + ", " + recovery.getReplayedRecords() + " journal records replayed)"
+        );
+    }
+    public int getPort() {
+        return server.getAddress().getPort();
     }
     public void stop() {
         server.stop(0);
+        requestExecutor.shutdown();
+        eventsHandler.shutdown();
+        maintenanceService.shutdown();
+        transactionEngine.shutdown();
+        System.out.println(
+                "🧵 Peak concurrency: " + requestExecutor.getPeakConcurrency()
+                        + " (" + requestExecutor.getCompletedCount() + " requests, "
+                        + requestExecutor.getOverflowCount() + " over the limit)"
+        );
+        SessionStore sessions = securityManager.getSessionStore();
+        System.out.println(
+                "🔐 Sessions: " + sessions.getActiveSessions() + " active, "
+                        + sessions.getExpiredSessions() + " expired, "
+                        + sessions.getEvictedSessions() + " evicted"
+        );
         System.out.println("🛑 Server stopped");
     }
     public static void main(String[] args) {
@@ -91,6 +187,7 @@ public class WalletServer {
         try {
             WalletServer server = new WalletServer(port);
             server.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
         } catch (IOException e) {
             System.err.println("❌ Failed to start server: " + e.getMessage());
             e.printStackTrace();
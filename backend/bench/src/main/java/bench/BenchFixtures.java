@@ -0,0 +1,74 @@
+package bench;
+import core.AccountLockManager;
+import core.LedgerJournal;
+import core.TransactionEngine;
+import core.UserManager;
+import core.WalletSecurityManager;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+final class BenchFixtures {
+    static final String PIN = "123456";
+    private BenchFixtures() {
+    }
+    static Path resetDataDirectory() {
+        Path dataDir = Paths.get(System.getProperty("user.dir"), "wallet_data");
+        deleteRecursively(dataDir);
+        return dataDir;
+    }
+    static TransactionEngine newEngine(
+            UserManager userManager,
+            LedgerJournal.FsyncPolicy fsyncPolicy
+    ) {
+        try {
+            Path journalDir = Files.createTempDirectory("bench-journal");
+            return new TransactionEngine(
+                    userManager,
+                    new LedgerJournal(journalDir, fsyncPolicy, 1000),
+                    AccountLockManager.fromEnvironment()
+            );
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    static UserManager newUserManager(WalletSecurityManager securityManager) {
+        resetDataDirectory();
+        return new UserManager(securityManager);
+    }
+    static List<String> registerFundedUsers(
+            UserManager userManager,
+            TransactionEngine engine,
+            int count,
+            long fundCents
+    ) {
+        List<String> userIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String userId = userManager.registerUser("bench" + i, PIN).getUserId();
+            if (!engine.addMoneyFromBank(userId, fundCents).isSuccess()) {
+                throw new IllegalStateException("Failed to fund " + userId);
+            }
+            userIds.add(userId);
+        }
+        return userIds;
+    }
+    static void deleteRecursively(Path path) {
+        if (!Files.exists(path)) return;
+        try (Stream<Path> files = Files.walk(path)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> {
+                try {
+                    Files.delete(p);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
\ No newline at end of file
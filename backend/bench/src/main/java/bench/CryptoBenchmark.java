@@ -0,0 +1,85 @@
+package bench;
+import core.CryptoProvider;
+import core.SessionStore;
+import core.WalletSecurityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CryptoBenchmark {
+    private static final String PIN = "123456";
+    private static final String USER_ID = "USR_1700000000000_1";
+    private final SessionStore legacySessions = new SessionStore(24L * 60 * 60 * 1000, 100_000);
+    private WalletSecurityManager securityManager;
+    private String storedHash;
+    private String syncPayload;
+    private String syncSignature;
+    @Setup
+    public void setUp() throws Exception {
+        securityManager = new WalletSecurityManager(new SessionStore(24L * 60 * 60 * 1000, 100_000));
+        storedHash = securityManager.hashPin(PIN);
+        syncPayload = "CLIENT_TXN_42|TRANSFER|125.5|1700000000000|USR_1700000000000_2";
+        syncSignature = legacyHex(
+                MessageDigest.getInstance("SHA-256").digest(syncPayload.getBytes(StandardCharsets.UTF_8))
+        );
+    }
+    @Benchmark
+    public String login() {
+        if (!securityManager.verifyPin(PIN, storedHash)) {
+            throw new IllegalStateException();
+        }
+        return securityManager.generateToken(USER_ID);
+    }
+    @Benchmark
+    public String loginLegacy() throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        String hash = Base64.getEncoder().encodeToString(digest.digest(PIN.getBytes(StandardCharsets.UTF_8)));
+        if (!hash.equals(storedHash)) {
+            throw new IllegalStateException();
+        }
+        byte[] randomBytes = new byte[32];
+        new SecureRandom().nextBytes(randomBytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(randomBytes);
+        legacySessions.put(token, USER_ID);
+        return token;
+    }
+    @Benchmark
+    public boolean syncIntegrity() {
+        byte[] hash = CryptoProvider.sha256(syncPayload.getBytes(StandardCharsets.UTF_8));
+        return CryptoProvider.hexEquals(hash, syncSignature);
+    }
+    @Benchmark
+    public boolean syncIntegrityLegacy() throws Exception {
+        MessageDigest md = MessageDigest.getInstance("SHA-256");
+        byte[] hash = md.digest(syncPayload.getBytes(StandardCharsets.UTF_8));
+        return legacyHex(hash).equals(syncSignature);
+    }
+    @Benchmark
+    public String encrypt() {
+        return securityManager.encrypt(syncPayload);
+    }
+    private static String legacyHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : bytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+}
\ No newline at end of file
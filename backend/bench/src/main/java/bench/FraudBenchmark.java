@@ -0,0 +1,47 @@
+package bench;
+import core.FraudCheckResult;
+import core.FraudDetector;
+import core.FraudRuleEngine;
+import core.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FraudBenchmark {
+    private static final String HOT_USER = "USR_hot";
+    private static final String COLD_USER = "USR_cold";
+    private FraudDetector fraudDetector;
+    @Setup
+    public void setUp() {
+        fraudDetector = new FraudDetector(new FraudRuleEngine(Paths.get("built-in-rules")));
+        for (int i = 0; i < 9; i++) {
+            fraudDetector.recordTransaction(HOT_USER, 100_000, Transaction.TransactionType.ADD_MONEY);
+        }
+    }
+    @Benchmark
+    public FraudCheckResult checkActiveUserWithdraw() {
+        return fraudDetector.checkTransaction(HOT_USER, 10_000, Transaction.TransactionType.WITHDRAW);
+    }
+    @Benchmark
+    public FraudCheckResult checkNewUserTransfer() {
+        return fraudDetector.checkTransaction(COLD_USER, 10_000, Transaction.TransactionType.TRANSFER);
+    }
+    @Benchmark
+    public FraudCheckResult checkOverLimit() {
+        return fraudDetector.checkTransaction(HOT_USER, 6_000_000, Transaction.TransactionType.TRANSFER);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,82 @@
+package bench;
+import core.LedgerJournal;
+import core.Transaction;
+import core.TransactionEngine;
+import core.TransactionPage;
+import core.TransactionQuery;
+import core.UserManager;
+import core.WalletSecurityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class HistoryBenchmark {
+    private static final int USERS = 100;
+    @Param({"10000", "1000000"})
+    public int ledgerSize;
+    private TransactionEngine engine;
+    private String[] userIds;
+    private TransactionQuery firstPage;
+    @Setup
+    public void setUp() {
+        WalletSecurityManager securityManager = new WalletSecurityManager();
+        UserManager userManager = BenchFixtures.newUserManager(securityManager);
+        engine = BenchFixtures.newEngine(userManager, LedgerJournal.FsyncPolicy.NEVER);
+        List<String> ids = BenchFixtures.registerFundedUsers(userManager, engine, USERS, 4_000_000L);
+        userIds = ids.toArray(new String[0]);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = USERS; i < ledgerSize; i++) {
+            int sender = random.nextInt(USERS);
+            int receiver = (sender + 1 + random.nextInt(USERS - 1)) % USERS;
+            engine.transfer(userIds[sender], userIds[receiver], 1);
+        }
+        firstPage = new TransactionQuery(null, 50, null, null, null, null, null);
+    }
+    @TearDown
+    public void tearDown() {
+        engine.shutdown();
+    }
+    @Benchmark
+    public List<Transaction> fullHistory() {
+        return engine.getUserTransactions(randomUser());
+    }
+    @Benchmark
+    public TransactionPage firstPage() {
+        return engine.getUserTransactions(randomUser(), firstPage);
+    }
+    @Benchmark
+    public TransactionPage filteredPage() {
+        return engine.getUserTransactions(
+                randomUser(),
+                new TransactionQuery(
+                        null,
+                        50,
+                        Transaction.TransactionType.TRANSFER,
+                        null,
+                        TransactionQuery.Direction.RECEIVED,
+                        null,
+                        null
+                )
+        );
+    }
+    private String randomUser() {
+        return userIds[ThreadLocalRandom.current().nextInt(userIds.length)];
+    }
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package bench;
+import com.sun.net.httpserver.HttpExchange;
+import handlers.BaseHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+    private static final String LOGIN_BODY = "{\"username\":\"alice\",\"pin\":\"123456\"}";
+    private static final String TRANSFER_BODY =
+            "{\"receiverUsername\":\"bob\",\"amount\":\"1250.75\",\"pin\":\"123456\","
+                    + "\"note\":\"Dinner, drinks \\\"and\\\" taxi \\u20ac\"}";
+    private final Parser parser = new Parser();
+    @Benchmark
+    public Map<String, String> parseLogin() {
+        return parser.parse(LOGIN_BODY);
+    }
+    @Benchmark
+    public Map<String, String> parseTransfer() {
+        return parser.parse(TRANSFER_BODY);
+    }
+    private static class Parser extends BaseHandler {
+        Map<String, String> parse(String json) {
+            return parseSimpleJson(json);
+        }
+        @Override
+        protected void handleRequest(HttpExchange exchange) {
+        }
+    }
+}
\ No newline at end of file
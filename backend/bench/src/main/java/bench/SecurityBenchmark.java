@@ -0,0 +1,44 @@
+package bench;
+import core.SessionStore;
+import core.WalletSecurityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecurityBenchmark {
+    @Param({"1000", "100000"})
+    public int sessions;
+    private WalletSecurityManager securityManager;
+    private String[] tokens;
+    @Setup
+    public void setUp() {
+        securityManager = new WalletSecurityManager(new SessionStore(24L * 60 * 60 * 1000, sessions));
+        tokens = new String[sessions];
+        for (int i = 0; i < sessions; i++) {
+            tokens[i] = securityManager.generateToken("USR_" + i);
+        }
+    }
+    @Benchmark
+    public String validateToken() {
+        return securityManager.validateToken(tokens[ThreadLocalRandom.current().nextInt(tokens.length)]);
+    }
+    @Benchmark
+    public String validateUnknownToken() {
+        return securityManager.validateToken("not-a-session-token");
+    }
+}
\ No newline at end of file
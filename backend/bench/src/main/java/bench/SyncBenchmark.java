@@ -0,0 +1,89 @@
+package bench;
+import core.CryptoProvider;
+import core.LedgerJournal;
+import core.OfflineFraudDetector;
+import core.OfflineSyncEngine;
+import core.OfflineTransaction;
+import core.OfflineTransactionManager;
+import core.SyncResult;
+import core.Transaction;
+import core.TransactionEngine;
+import core.UserManager;
+import core.WalletSecurityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SyncBenchmark {
+    @Param({"1", "10"})
+    public int batchSize;
+    private TransactionEngine engine;
+    private OfflineSyncEngine syncEngine;
+    private String senderId;
+    private String receiverId;
+    private long counter;
+    @Setup
+    public void setUp() {
+        WalletSecurityManager securityManager = new WalletSecurityManager();
+        UserManager userManager = BenchFixtures.newUserManager(securityManager);
+        engine = BenchFixtures.newEngine(userManager, LedgerJournal.FsyncPolicy.NEVER);
+        List<String> ids = BenchFixtures.registerFundedUsers(userManager, engine, 2, 4_000_000L);
+        senderId = ids.get(0);
+        receiverId = ids.get(1);
+        syncEngine = new OfflineSyncEngine(
+                engine,
+                userManager,
+                new OfflineTransactionManager(),
+                new OfflineFraudDetector()
+        );
+    }
+    @TearDown
+    public void tearDown() {
+        engine.shutdown();
+    }
+    @Benchmark
+    public SyncResult syncOfflineTransactions() {
+        List<OfflineTransaction> batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            batch.add(signed("CLIENT_" + (++counter), 0.01, System.currentTimeMillis()));
+        }
+        SyncResult result = syncEngine.syncOfflineTransactions(senderId, batch);
+        if (!result.isSuccess()) {
+            throw new IllegalStateException(result.getMessage());
+        }
+        return result;
+    }
+    private OfflineTransaction signed(String clientId, double amount, long timestamp) {
+        String data = clientId + "|" + Transaction.TransactionType.TRANSFER + "|"
+                + amount + "|" + timestamp + "|" + receiverId;
+        String signature = CryptoProvider.toHex(
+                CryptoProvider.sha256(data.getBytes(StandardCharsets.UTF_8))
+        );
+        return new OfflineTransaction(
+                clientId,
+                Transaction.TransactionType.TRANSFER,
+                receiverId,
+                amount,
+                timestamp,
+                signature
+        );
+    }
+}
\ No newline at end of file
@@ -0,0 +1,99 @@
+package bench;
+import core.Transaction;
+import core.TransactionCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionCodecBenchmark {
+    private static final int USERS = 1000;
+    @Param({"100000"})
+    public int records;
+    private List<Transaction> transactions;
+    private Map<String, Transaction> transactionMap;
+    private byte[] compact;
+    private byte[] serialized;
+    @Setup
+    public void setUp() throws IOException {
+        transactions = new ArrayList<>(records);
+        transactionMap = new HashMap<>();
+        for (int i = 0; i < records; i++) {
+            int sender = i % USERS;
+            int receiver = (i * 7 + 1) % USERS;
+            Transaction txn = new Transaction(
+                    "TXN_1700000000000_" + i,
+                    Transaction.TransactionType.TRANSFER,
+                    "USR_1700000000000_" + sender,
+                    "user" + sender,
+                    "USR_1700000000000_" + receiver,
+                    "user" + receiver,
+                    100 + i % 10_000
+            );
+            txn.markSuccess();
+            transactions.add(txn);
+            transactionMap.put(txn.getTransactionId(), txn);
+        }
+        compact = encodeCompact();
+        serialized = encodeSerialized();
+        System.out.println();
+        System.out.println(String.format(
+                Locale.ROOT,
+                "bytes/record: compact %.1f, java serialization %.1f",
+                (double) compact.length / records,
+                (double) serialized.length / records
+        ));
+    }
+    @Benchmark
+    public byte[] encodeCompact() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(records * 64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        TransactionCodec.writeCompact(out, transactions);
+        out.flush();
+        return bytes.toByteArray();
+    }
+    @Benchmark
+    public List<Transaction> decodeCompact() throws IOException {
+        return TransactionCodec.readCompact(new DataInputStream(new ByteArrayInputStream(compact)));
+    }
+    @Benchmark
+    public byte[] encodeSerialized() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(records * 256);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(transactionMap);
+        }
+        return bytes.toByteArray();
+    }
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Map<String, Transaction> decodeSerialized() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            return (Map<String, Transaction>) in.readObject();
+        }
+    }
+}
\ No newline at end of file
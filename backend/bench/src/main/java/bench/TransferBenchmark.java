@@ -0,0 +1,56 @@
+package bench;
+import core.LedgerJournal;
+import core.TransactionEngine;
+import core.TransactionResult;
+import core.UserManager;
+import core.WalletSecurityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class TransferBenchmark {
+    @Param({"2", "64"})
+    public int accounts;
+    @Param({"GROUP", "NEVER"})
+    public String fsync;
+    private TransactionEngine engine;
+    private String[] userIds;
+    @Setup
+    public void setUp() {
+        WalletSecurityManager securityManager = new WalletSecurityManager();
+        UserManager userManager = BenchFixtures.newUserManager(securityManager);
+        engine = BenchFixtures.newEngine(userManager, LedgerJournal.FsyncPolicy.valueOf(fsync));
+        List<String> ids = BenchFixtures.registerFundedUsers(userManager, engine, accounts, 4_000_000L);
+        userIds = ids.toArray(new String[0]);
+    }
+    @TearDown
+    public void tearDown() {
+        engine.shutdown();
+    }
+    @Benchmark
+    public TransactionResult transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int sender = random.nextInt(userIds.length);
+        int receiver = (sender + 1 + random.nextInt(userIds.length - 1)) % userIds.length;
+        return engine.transfer(userIds[sender], userIds[receiver], 1);
+    }
+}
\ No newline at end of file
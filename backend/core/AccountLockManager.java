@@ -0,0 +1,99 @@
+package core;
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+public class AccountLockManager {
+    private static final int DEFAULT_STRIPES = 256;
+    private final Mode mode;
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    public AccountLockManager(Mode mode, int stripeCount) {
+        this.mode = mode;
+        int size = 1;
+        while (mode == Mode.STRIPED && size < stripeCount) {
+            size <<= 1;
+        }
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+    public static AccountLockManager fromEnvironment() {
+        Mode mode = Mode.parse(System.getenv("WALLET_LOCK_MODE"));
+        int stripeCount = DEFAULT_STRIPES;
+        if (System.getenv("WALLET_LOCK_STRIPES") != null) {
+            stripeCount = Integer.parseInt(System.getenv("WALLET_LOCK_STRIPES"));
+        }
+        return new AccountLockManager(mode, stripeCount);
+    }
+    public void lock(String userId) {
+        stripes[stripeOf(userId)].lock();
+    }
+    public void unlock(String userId) {
+        stripes[stripeOf(userId)].unlock();
+    }
+    public void lock(String firstUserId, String secondUserId) {
+        int a = stripeOf(firstUserId);
+        int b = stripeOf(secondUserId);
+        if (a == b) {
+            stripes[a].lock();
+            return;
+        }
+        stripes[Math.min(a, b)].lock();
+        stripes[Math.max(a, b)].lock();
+    }
+    public void unlock(String firstUserId, String secondUserId) {
+        int a = stripeOf(firstUserId);
+        int b = stripeOf(secondUserId);
+        if (a == b) {
+            stripes[a].unlock();
+            return;
+        }
+        stripes[Math.max(a, b)].unlock();
+        stripes[Math.min(a, b)].unlock();
+    }
+    public void lock(Collection<String> userIds) {
+        for (int stripe : stripesOf(userIds)) {
+            stripes[stripe].lock();
+        }
+    }
+    public void unlock(Collection<String> userIds) {
+        int[] held = stripesOf(userIds);
+        for (int i = held.length - 1; i >= 0; i--) {
+            stripes[held[i]].unlock();
+        }
+    }
+    public void lockAll() {
+        for (ReentrantLock stripe : stripes) {
+            stripe.lock();
+        }
+    }
+    public void unlockAll() {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            stripes[i].unlock();
+        }
+    }
+    public Mode getMode() {
+        return mode;
+    }
+    public int getStripeCount() {
+        return stripes.length;
+    }
+    private int[] stripesOf(Collection<String> userIds) {
+        return userIds.stream().mapToInt(this::stripeOf).distinct().sorted().toArray();
+    }
+    private int stripeOf(String userId) {
+        int h = userId.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+    public enum Mode {
+        GLOBAL,
+        STRIPED;
+        public static Mode parse(String value) {
+            if (value == null || value.isBlank()) {
+                return STRIPED;
+            }
+            return Mode.valueOf(value.trim().toUpperCase());
+        }
+    }
+}
\ No newline at end of file
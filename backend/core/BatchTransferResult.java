@@ -0,0 +1,76 @@
+package core;
+import java.util.List;
+public class BatchTransferResult {
+    private final boolean success;
+    private final String message;
+    private final List<LegResult> legs;
+    private final long transferredCents;
+    private final long newBalanceCents;
+    private BatchTransferResult(
+            boolean success,
+            String message,
+            List<LegResult> legs,
+            long transferredCents,
+            long newBalanceCents
+    ) {
+        this.success = success;
+        this.message = message;
+        this.legs = legs;
+        this.transferredCents = transferredCents;
+        this.newBalanceCents = newBalanceCents;
+    }
+    public static BatchTransferResult rejected(String message) {
+        return new BatchTransferResult(false, message, List.of(), 0, 0);
+    }
+    public static BatchTransferResult completed(
+            List<LegResult> legs,
+            long transferredCents,
+            long newBalanceCents
+    ) {
+        long applied = legs.stream().filter(LegResult::isSuccess).count();
+        String message;
+        if (applied == legs.size()) {
+            message = "Batch transfer successful";
+        } else if (applied == 0) {
+            message = "No transfers applied";
+        } else {
+            message = "Applied " + applied + " of " + legs.size() + " transfers";
+        }
+        return new BatchTransferResult(
+                applied == legs.size(),
+                message,
+                legs,
+                transferredCents,
+                newBalanceCents
+        );
+    }
+    public boolean isSuccess() { return success; }
+    public boolean isApplied() { return transferredCents > 0; }
+    public String getMessage() { return message; }
+    public List<LegResult> getLegs() { return legs; }
+    public long getTransferredCents() { return transferredCents; }
+    public long getNewBalanceCents() { return newBalanceCents; }
+    public static class LegResult {
+        private final String receiverId;
+        private final long amountCents;
+        private final String transactionId;
+        private final String reason;
+        private LegResult(String receiverId, long amountCents, String transactionId, String reason) {
+            this.receiverId = receiverId;
+            this.amountCents = amountCents;
+            this.transactionId = transactionId;
+            this.reason = reason;
+        }
+        static LegResult applied(Transaction txn) {
+            return new LegResult(txn.getReceiverId(), txn.getAmountCents(), txn.getTransactionId(), null);
+        }
+        static LegResult failed(TransferLeg leg, String reason) {
+            return new LegResult(leg.getReceiverId(), leg.getAmountCents(), null, reason);
+        }
+        public boolean isSuccess() { return transactionId != null; }
+        public String getReceiverId() { return receiverId; }
+        public long getAmountCents() { return amountCents; }
+        public String getTransactionId() { return transactionId; }
+        public String getReason() { return reason; }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,102 @@
+package core;
+import javax.crypto.Cipher;
+import javax.crypto.NoSuchPaddingException;
+import javax.crypto.spec.IvParameterSpec;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+public final class CryptoProvider {
+    public static final String DIGEST_ALGORITHM = "SHA-256";
+    public static final String CIPHER_ALGORITHM = "AES/CBC/PKCS5Padding";
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private static final int POOL_SIZE = Runtime.getRuntime().availableProcessors() * 2;
+    private static final ResourcePool<MessageDigest> DIGESTS = new ResourcePool<>(POOL_SIZE, () -> {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " not supported", e);
+        }
+    });
+    private static final ResourcePool<Cipher> CIPHERS = new ResourcePool<>(POOL_SIZE, () -> {
+        try {
+            return Cipher.getInstance(CIPHER_ALGORITHM);
+        } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
+            throw new IllegalStateException(CIPHER_ALGORITHM + " not supported", e);
+        }
+    });
+    private static final SecureRandom RANDOM = newRandom();
+    private CryptoProvider() {
+    }
+    public static byte[] sha256(byte[] data) {
+        MessageDigest digest = DIGESTS.acquire();
+        try {
+            return digest.digest(data);
+        } finally {
+            digest.reset();
+            DIGESTS.release(digest);
+        }
+    }
+    public static byte[] aesCbc(int mode, Key key, byte[] iv, byte[] data)
+            throws GeneralSecurityException {
+        Cipher cipher = CIPHERS.acquire();
+        try {
+            cipher.init(mode, key, new IvParameterSpec(iv));
+            return cipher.doFinal(data);
+        } finally {
+            CIPHERS.release(cipher);
+        }
+    }
+    public static SecureRandom random() {
+        return RANDOM;
+    }
+    public static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        RANDOM.nextBytes(bytes);
+        return bytes;
+    }
+    private static SecureRandom newRandom() {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    }
+    public static String toHex(byte[] bytes) {
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int b = bytes[i] & 0xFF;
+            hex[i * 2] = HEX_DIGITS[b >>> 4];
+            hex[i * 2 + 1] = HEX_DIGITS[b & 0x0F];
+        }
+        return new String(hex);
+    }
+    public static byte[] fromHex(String hex) {
+        if ((hex.length() & 1) != 0) {
+            throw new IllegalArgumentException("Odd-length hex string");
+        }
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int hi = Character.digit(hex.charAt(i * 2), 16);
+            int lo = Character.digit(hex.charAt(i * 2 + 1), 16);
+            if (hi < 0 || lo < 0) {
+                throw new IllegalArgumentException("Invalid hex string");
+            }
+            bytes[i] = (byte) ((hi << 4) | lo);
+        }
+        return bytes;
+    }
+    public static boolean hexEquals(byte[] bytes, String hex) {
+        if (hex == null || hex.length() != bytes.length * 2) {
+            return false;
+        }
+        int diff = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            int b = bytes[i] & 0xFF;
+            diff |= hex.charAt(i * 2) ^ HEX_DIGITS[b >>> 4];
+            diff |= hex.charAt(i * 2 + 1) ^ HEX_DIGITS[b & 0x0F];
+        }
+        return diff == 0;
+    }
+}
\ No newline at end of file
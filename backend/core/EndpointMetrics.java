@@ -0,0 +1,28 @@
+package core;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+public class EndpointMetrics {
+    private final String path;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+    public EndpointMetrics(String path) {
+        this.path = path;
+    }
+    public void record(int statusCode, long latencyNanos) {
+        latency.record(latencyNanos);
+        statusCounts.computeIfAbsent(statusCode, k -> new LongAdder()).increment();
+    }
+    public String getPath() {
+        return path;
+    }
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+    public Map<Integer, Long> getStatusCounts() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        statusCounts.forEach((code, count) -> counts.put(code, count.sum()));
+        return counts;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,355 @@
+package core;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+public class FraudRuleEngine implements Sweepable {
+    private static final String DEFAULT_RULES_FILE = "fraud-rules.properties";
+    private static final long DEFAULT_RELOAD_INTERVAL_MS = 5000;
+    private final Path rulesFile;
+    private final Map<String, UserWindows> userWindows = new ConcurrentHashMap<>();
+    private volatile Pipeline pipeline;
+    private long loadedModifiedAt = Long.MIN_VALUE;
+    private ScheduledExecutorService reloadScheduler;
+    public FraudRuleEngine(Path rulesFile) {
+        this.rulesFile = rulesFile;
+        this.pipeline = compile(defaultRules());
+        reload();
+    }
+    public static FraudRuleEngine fromEnvironment() {
+        Path rulesFile = Paths.get(System.getProperty("user.dir"), DEFAULT_RULES_FILE);
+        if (System.getenv("WALLET_FRAUD_RULES") != null) {
+            rulesFile = Paths.get(System.getenv("WALLET_FRAUD_RULES"));
+        }
+        long reloadIntervalMs = DEFAULT_RELOAD_INTERVAL_MS;
+        if (System.getenv("WALLET_FRAUD_RULES_RELOAD_MS") != null) {
+            reloadIntervalMs = Long.parseLong(System.getenv("WALLET_FRAUD_RULES_RELOAD_MS"));
+        }
+        FraudRuleEngine engine = new FraudRuleEngine(rulesFile);
+        engine.startWatching(reloadIntervalMs);
+        return engine;
+    }
+    public FraudCheckResult evaluate(
+            String userId,
+            long amountCents,
+            Transaction.TransactionType type
+    ) {
+        Pipeline current = pipeline;
+        UserWindows windows = userWindows.get(userId);
+        SlidingWindowCounter[] counters =
+                windows == null ? null : windows.forPipeline(current).counters;
+        long now = System.currentTimeMillis();
+        for (Rule rule : current.rules) {
+            if (!rule.appliesTo(type)) continue;
+            if (rule.violated(amountCents, counters, now)) {
+                return FraudCheckResult.blocked(rule.reason);
+            }
+        }
+        return FraudCheckResult.allowed();
+    }
+    public void record(String userId, long amountCents, Transaction.TransactionType type) {
+        Pipeline current = pipeline;
+        if (current.windows.isEmpty()) return;
+        long now = System.currentTimeMillis();
+        userWindows.compute(userId, (k, w) -> {
+            UserWindows windows = w == null ? new UserWindows(current, null) : w.forPipeline(current);
+            for (int i = 0; i < current.windows.size(); i++) {
+                if (current.windows.get(i).counts(type)) {
+                    windows.counters[i].add(now, amountCents);
+                }
+            }
+            return windows;
+        });
+    }
+    public synchronized boolean reload() {
+        try {
+            if (!Files.exists(rulesFile)) {
+                if (loadedModifiedAt != Long.MIN_VALUE) {
+                    System.out.println("🛡️ Fraud rules file removed, using built-in rules");
+                    pipeline = compile(defaultRules());
+                    loadedModifiedAt = Long.MIN_VALUE;
+                }
+                return false;
+            }
+            long modifiedAt = Files.getLastModifiedTime(rulesFile).toMillis();
+            if (modifiedAt == loadedModifiedAt) return false;
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(rulesFile, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+            pipeline = compile(properties);
+            loadedModifiedAt = modifiedAt;
+            System.out.println(
+                    "🛡️ Loaded " + pipeline.rules.size() + " fraud rules from " + rulesFile
+            );
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("❌ Failed to load fraud rules, keeping previous rules: " + e.getMessage());
+            return false;
+        }
+    }
+    @Override
+    public String getSweepName() {
+        return "fraud windows";
+    }
+    @Override
+    public Iterator<String> sweepKeys() {
+        return userWindows.keySet().iterator();
+    }
+    @Override
+    public boolean sweep(String userId, long now) {
+        boolean[] evicted = {false};
+        userWindows.computeIfPresent(userId, (k, w) -> {
+            evicted[0] = w.isIdle(now);
+            return evicted[0] ? null : w;
+        });
+        return evicted[0];
+    }
+    public void startWatching(long intervalMs) {
+        if (reloadScheduler != null || intervalMs <= 0) return;
+        reloadScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "fraud-rules-reload");
+            t.setDaemon(true);
+            return t;
+        });
+        reloadScheduler.scheduleWithFixedDelay(
+                this::reload,
+                intervalMs,
+                intervalMs,
+                TimeUnit.MILLISECONDS
+        );
+    }
+    public void shutdown() {
+        if (reloadScheduler != null) {
+            reloadScheduler.shutdownNow();
+        }
+    }
+    public List<String> getRuleNames() {
+        List<String> names = new ArrayList<>();
+        for (Rule rule : pipeline.rules) {
+            names.add(rule.name);
+        }
+        return names;
+    }
+    private static Properties defaultRules() {
+        Properties properties = new Properties();
+        properties.setProperty("rules", "max-amount,velocity,topup-withdraw");
+        properties.setProperty("rule.max-amount.type", "MAX_AMOUNT");
+        properties.setProperty("rule.max-amount.max-amount", "50000.00");
+        properties.setProperty("rule.max-amount.reason", "Amount exceeds allowed limit");
+        properties.setProperty("rule.velocity.type", "VELOCITY");
+        properties.setProperty("rule.velocity.window-ms", "60000");
+        properties.setProperty("rule.velocity.max-count", "10");
+        properties.setProperty("rule.velocity.reason", "Too many transactions in a short period");
+        properties.setProperty("rule.topup-withdraw.type", "WINDOW_SUM_RATIO");
+        properties.setProperty("rule.topup-withdraw.applies-to", "WITHDRAW");
+        properties.setProperty("rule.topup-withdraw.sum-of", "ADD_MONEY");
+        properties.setProperty("rule.topup-withdraw.window-ms", "300000");
+        properties.setProperty("rule.topup-withdraw.percent", "90");
+        properties.setProperty("rule.topup-withdraw.reason", "Suspicious rapid top-up and withdrawal");
+        return properties;
+    }
+    private static Pipeline compile(Properties properties) {
+        List<Window> windows = new ArrayList<>();
+        List<Rule> rules = new ArrayList<>();
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : properties.getProperty("rules", "").split(",")) {
+            names.add(name.trim());
+        }
+        for (String name : names) {
+            if (name.isEmpty()) continue;
+            String prefix = "rule." + name + ".";
+            if ("false".equalsIgnoreCase(properties.getProperty(prefix + "enabled", "true").trim())) {
+                continue;
+            }
+            RuleType type = RuleType.valueOf(required(properties, prefix + "type").toUpperCase());
+            int appliesTo = typeMask(properties.getProperty(prefix + "applies-to"));
+            String reason = properties.getProperty(prefix + "reason", "Blocked by fraud rule " + name).trim();
+            switch (type) {
+                case MAX_AMOUNT:
+                    rules.add(new MaxAmountRule(
+                            name,
+                            appliesTo,
+                            reason,
+                            Money.parse(required(properties, prefix + "max-amount"))
+                    ));
+                    break;
+                case VELOCITY:
+                    rules.add(new VelocityRule(
+                            name,
+                            appliesTo,
+                            reason,
+                            windowIndex(windows, new Window(
+                                    Long.parseLong(required(properties, prefix + "window-ms")),
+                                    typeMask(properties.getProperty(prefix + "counts"))
+                            )),
+                            Long.parseLong(required(properties, prefix + "max-count"))
+                    ));
+                    break;
+                case WINDOW_SUM_RATIO:
+                    rules.add(new WindowSumRatioRule(
+                            name,
+                            appliesTo,
+                            reason,
+                            windowIndex(windows, new Window(
+                                    Long.parseLong(required(properties, prefix + "window-ms")),
+                                    typeMask(properties.getProperty(prefix + "sum-of"))
+                            )),
+                            Long.parseLong(required(properties, prefix + "percent"))
+                    ));
+                    break;
+            }
+        }
+        rules.sort(Comparator.comparingInt(rule -> rule.cost));
+        return new Pipeline(rules, windows);
+    }
+    private static String required(Properties properties, String key) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing " + key);
+        }
+        return value.trim();
+    }
+    private static int typeMask(String types) {
+        if (types == null || types.isBlank()) return -1;
+        int mask = 0;
+        for (String type : types.split(",")) {
+            mask |= 1 << Transaction.TransactionType.valueOf(type.trim().toUpperCase()).ordinal();
+        }
+        return mask;
+    }
+    private static int windowIndex(List<Window> windows, Window window) {
+        int index = windows.indexOf(window);
+        if (index >= 0) return index;
+        windows.add(window);
+        return windows.size() - 1;
+    }
+    private static class Pipeline {
+        private final List<Rule> rules;
+        private final List<Window> windows;
+        Pipeline(List<Rule> rules, List<Window> windows) {
+            this.rules = rules;
+            this.windows = windows;
+        }
+    }
+    private static class Window {
+        private final long windowMs;
+        private final int typeMask;
+        Window(long windowMs, int typeMask) {
+            this.windowMs = windowMs;
+            this.typeMask = typeMask;
+        }
+        boolean counts(Transaction.TransactionType type) {
+            return (typeMask & (1 << type.ordinal())) != 0;
+        }
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Window)) return false;
+            Window other = (Window) o;
+            return windowMs == other.windowMs && typeMask == other.typeMask;
+        }
+        @Override
+        public int hashCode() {
+            return Objects.hash(windowMs, typeMask);
+        }
+    }
+    private static class UserWindows {
+        private final Pipeline pipeline;
+        private final SlidingWindowCounter[] counters;
+        UserWindows(Pipeline pipeline, UserWindows previous) {
+            this.pipeline = pipeline;
+            this.counters = new SlidingWindowCounter[pipeline.windows.size()];
+            for (int i = 0; i < counters.length; i++) {
+                Window window = pipeline.windows.get(i);
+                int carried = previous == null ? -1 : previous.pipeline.windows.indexOf(window);
+                counters[i] = carried >= 0
+                        ? previous.counters[carried]
+                        : new SlidingWindowCounter(window.windowMs);
+            }
+        }
+        boolean isIdle(long now) {
+            for (SlidingWindowCounter counter : counters) {
+                if (!counter.isEmpty(now)) return false;
+            }
+            return true;
+        }
+        UserWindows forPipeline(Pipeline current) {
+            return pipeline == current ? this : new UserWindows(current, this);
+        }
+    }
+    private abstract static class Rule {
+        private final String name;
+        private final int appliesTo;
+        private final String reason;
+        private final int cost;
+        Rule(String name, int appliesTo, String reason, int cost) {
+            this.name = name;
+            this.appliesTo = appliesTo;
+            this.reason = reason;
+            this.cost = cost;
+        }
+        boolean appliesTo(Transaction.TransactionType type) {
+            return (appliesTo & (1 << type.ordinal())) != 0;
+        }
+        abstract boolean violated(long amountCents, SlidingWindowCounter[] counters, long now);
+    }
+    private static class MaxAmountRule extends Rule {
+        private final long maxAmountCents;
+        MaxAmountRule(String name, int appliesTo, String reason, long maxAmountCents) {
+            super(name, appliesTo, reason, 0);
+            this.maxAmountCents = maxAmountCents;
+        }
+        @Override
+        boolean violated(long amountCents, SlidingWindowCounter[] counters, long now) {
+            return amountCents > maxAmountCents;
+        }
+    }
+    private static class VelocityRule extends Rule {
+        private final int window;
+        private final long maxCount;
+        VelocityRule(String name, int appliesTo, String reason, int window, long maxCount) {
+            super(name, appliesTo, reason, 1);
+            this.window = window;
+            this.maxCount = maxCount;
+        }
+        @Override
+        boolean violated(long amountCents, SlidingWindowCounter[] counters, long now) {
+            return counters != null && counters[window].count(now) >= maxCount;
+        }
+    }
+    private static class WindowSumRatioRule extends Rule {
+        private final int window;
+        private final long percent;
+        WindowSumRatioRule(String name, int appliesTo, String reason, int window, long percent) {
+            super(name, appliesTo, reason, 1);
+            this.window = window;
+            this.percent = percent;
+        }
+        @Override
+        boolean violated(long amountCents, SlidingWindowCounter[] counters, long now) {
+            if (counters == null) return false;
+            long sum = counters[window].sum(now);
+            return sum > 0 && amountCents * 100 >= sum * percent;
+        }
+    }
+    private enum RuleType {
+        MAX_AMOUNT,
+        VELOCITY,
+        WINDOW_SUM_RATIO
+    }
+}
\ No newline at end of file
@@ -0,0 +1,28 @@
+package core;
+import java.util.List;
+public class JournalRecord {
+    private final long sequence;
+    private final List<Transaction> transactions;
+    private final List<BalanceEntry> balances;
+    JournalRecord(long sequence, List<Transaction> transactions, List<BalanceEntry> balances) {
+        this.sequence = sequence;
+        this.transactions = transactions;
+        this.balances = balances;
+    }
+    public long getSequence() { return sequence; }
+    public List<Transaction> getTransactions() { return transactions; }
+    public List<BalanceEntry> getBalances() { return balances; }
+    public static class BalanceEntry {
+        private final String userId;
+        private final long walletBalanceCents;
+        private final long bankBalanceCents;
+        BalanceEntry(String userId, long walletBalanceCents, long bankBalanceCents) {
+            this.userId = userId;
+            this.walletBalanceCents = walletBalanceCents;
+            this.bankBalanceCents = bankBalanceCents;
+        }
+        public String getUserId() { return userId; }
+        public long getWalletBalanceCents() { return walletBalanceCents; }
+        public long getBankBalanceCents() { return bankBalanceCents; }
+    }
+}
\ No newline at end of file
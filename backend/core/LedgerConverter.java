@@ -0,0 +1,42 @@
+package core;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+public final class LedgerConverter {
+    private LedgerConverter() {
+    }
+    @SuppressWarnings("unchecked")
+    public static void main(String[] args) throws IOException {
+        LedgerSnapshot snapshot = PersistenceManager.loadLatestSnapshot();
+        Path source;
+        if (snapshot != null) {
+            source = PersistenceManager.getSnapshotFile(snapshot.getSequence());
+        } else {
+            source = PersistenceManager.getTransactionsFile();
+            if (!Files.exists(source)) {
+                System.err.println("❌ No snapshot or " + source.getFileName() + " to convert");
+                System.exit(1);
+            }
+            Map<String, Object> data = PersistenceManager.loadUsers();
+            Map<String, User> users = data == null ? null : (Map<String, User>) data.get("users");
+            snapshot = LedgerSnapshot.capture(
+                    0,
+                    users == null ? Map.<String, User>of().values() : users.values(),
+                    PersistenceManager.loadTransactions().values()
+            );
+        }
+        long sourceBytes = Files.size(source);
+        PersistenceManager.saveSnapshot(snapshot);
+        long targetBytes = Files.size(PersistenceManager.getSnapshotFile(snapshot.getSequence()));
+        int records = snapshot.getTransactions().size();
+        System.out.println(
+                "✅ Converted " + records + " transactions from " + source.getFileName()
+                        + " to snapshot #" + snapshot.getSequence()
+        );
+        System.out.println(
+                "📦 " + sourceBytes + " → " + targetBytes + " bytes"
+                        + (records > 0 ? " (" + targetBytes / records + " bytes/record)" : "")
+        );
+    }
+}
\ No newline at end of file
@@ -0,0 +1,512 @@
+package core;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+public class LedgerJournal implements Closeable {
+    private static final int SEGMENT_MAGIC = 0x574A524E;
+    private static final byte FORMAT_VERSION = TransactionCodec.BATCH_RECORD_VERSION;
+    private static final int SEGMENT_HEADER_BYTES = 5;
+    private static final long DEFAULT_SEGMENT_BYTES = 64L * 1024 * 1024;
+    private static final long DEFAULT_FSYNC_INTERVAL_MS = 1000;
+    private static final int DEFAULT_GROUP_COMMIT_RECORDS = 64;
+    private static final long DEFAULT_GROUP_COMMIT_DELAY_MICROS = 500;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private final Path directory;
+    private final FsyncPolicy fsyncPolicy;
+    private final long maxSegmentBytes;
+    private final int groupCommitRecords;
+    private final long groupCommitDelayNanos;
+    private final Object writeLock = new Object();
+    private final ReentrantLock durableLock = new ReentrantLock();
+    private final Condition durableAdvanced = durableLock.newCondition();
+    private final ByteArrayOutputStream scratch = new ByteArrayOutputStream(256);
+    private final CRC32 crc = new CRC32();
+    private ScheduledExecutorService fsyncScheduler;
+    private Thread groupCommitWriter;
+    private List<Frame> pending = new ArrayList<>();
+    private long durableSequence;
+    private volatile IOException failure;
+    private boolean closed;
+    private FileChannel channel;
+    private long segmentBytes;
+    private long nextSequence = 1;
+    private boolean dirty;
+    private boolean recovered;
+    public LedgerJournal(Path directory, FsyncPolicy fsyncPolicy, long fsyncIntervalMs) {
+        this(directory, fsyncPolicy, fsyncIntervalMs, DEFAULT_SEGMENT_BYTES);
+    }
+    public LedgerJournal(
+            Path directory,
+            FsyncPolicy fsyncPolicy,
+            long fsyncIntervalMs,
+            long maxSegmentBytes
+    ) {
+        this(
+                directory,
+                fsyncPolicy,
+                fsyncIntervalMs,
+                maxSegmentBytes,
+                DEFAULT_GROUP_COMMIT_RECORDS,
+                DEFAULT_GROUP_COMMIT_DELAY_MICROS
+        );
+    }
+    public LedgerJournal(
+            Path directory,
+            FsyncPolicy fsyncPolicy,
+            long fsyncIntervalMs,
+            long maxSegmentBytes,
+            int groupCommitRecords,
+            long groupCommitDelayMicros
+    ) {
+        this.directory = directory;
+        this.fsyncPolicy = fsyncPolicy;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.groupCommitRecords = Math.max(1, groupCommitRecords);
+        this.groupCommitDelayNanos = TimeUnit.MICROSECONDS.toNanos(groupCommitDelayMicros);
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new RuntimeException("❌ Failed to create journal directory", e);
+        }
+        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+            fsyncScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "ledger-journal-fsync");
+                t.setDaemon(true);
+                return t;
+            });
+            fsyncScheduler.scheduleWithFixedDelay(
+                    this::flushIfDirty,
+                    fsyncIntervalMs,
+                    fsyncIntervalMs,
+                    TimeUnit.MILLISECONDS
+            );
+        }
+        if (fsyncPolicy == FsyncPolicy.GROUP) {
+            groupCommitWriter = new Thread(this::runGroupCommit, "ledger-journal-group-commit");
+            groupCommitWriter.setDaemon(true);
+            groupCommitWriter.start();
+        }
+    }
+    public static LedgerJournal fromEnvironment(Path directory) {
+        FsyncPolicy policy = FsyncPolicy.parse(System.getenv("WALLET_JOURNAL_FSYNC"));
+        long intervalMs = DEFAULT_FSYNC_INTERVAL_MS;
+        if (System.getenv("WALLET_JOURNAL_FSYNC_INTERVAL_MS") != null) {
+            intervalMs = Long.parseLong(System.getenv("WALLET_JOURNAL_FSYNC_INTERVAL_MS"));
+        }
+        int groupRecords = DEFAULT_GROUP_COMMIT_RECORDS;
+        if (System.getenv("WALLET_JOURNAL_GROUP_RECORDS") != null) {
+            groupRecords = Integer.parseInt(System.getenv("WALLET_JOURNAL_GROUP_RECORDS"));
+        }
+        long groupDelayMicros = DEFAULT_GROUP_COMMIT_DELAY_MICROS;
+        if (System.getenv("WALLET_JOURNAL_GROUP_DELAY_US") != null) {
+            groupDelayMicros = Long.parseLong(System.getenv("WALLET_JOURNAL_GROUP_DELAY_US"));
+        }
+        return new LedgerJournal(
+                directory,
+                policy,
+                intervalMs,
+                DEFAULT_SEGMENT_BYTES,
+                groupRecords,
+                groupDelayMicros
+        );
+    }
+    public long append(Transaction txn, User... touched) {
+        return append(List.of(txn), touched);
+    }
+    public synchronized long append(List<Transaction> txns, User... touched) {
+        checkWritable();
+        if (!recovered) {
+            replay(0, record -> {});
+        }
+        long sequence = nextSequence++;
+        byte[] payload;
+        try {
+            scratch.reset();
+            DataOutputStream out = new DataOutputStream(scratch);
+            out.writeLong(sequence);
+            out.writeShort(txns.size());
+            for (Transaction txn : txns) {
+                TransactionCodec.write(out, txn);
+            }
+            out.writeShort(touched.length);
+            for (User user : touched) {
+                User.Balances balances = user.getBalances();
+                out.writeUTF(user.getUserId());
+                out.writeLong(balances.getWalletBalanceCents());
+                out.writeLong(balances.getBankBalanceCents());
+            }
+            out.flush();
+            payload = scratch.toByteArray();
+        } catch (IOException e) {
+            nextSequence--;
+            throw new UncheckedIOException("Failed to encode journal record " + sequence, e);
+        }
+        if (fsyncPolicy == FsyncPolicy.GROUP && !closed) {
+            pending.add(new Frame(sequence, payload));
+            notifyAll();
+            return sequence;
+        }
+        synchronized (writeLock) {
+            try {
+                writeFrame(sequence, payload);
+                if (fsyncPolicy == FsyncPolicy.ALWAYS || fsyncPolicy == FsyncPolicy.GROUP) {
+                    channel.force(false);
+                    markDurable(sequence);
+                } else {
+                    dirty = true;
+                }
+            } catch (IOException e) {
+                recordFailure("Failed to append journal record " + sequence, e);
+                throw new UncheckedIOException("Failed to append journal record " + sequence, e);
+            }
+        }
+        return sequence;
+    }
+    public void awaitDurable(long sequence) {
+        if (fsyncPolicy != FsyncPolicy.GROUP) return;
+        durableLock.lock();
+        try {
+            while (durableSequence < sequence) {
+                checkWritable();
+                if (!groupCommitWriter.isAlive()) {
+                    throw new UncheckedIOException(new IOException(
+                            "Journal writer stopped before record " + sequence + " was durable"
+                    ));
+                }
+                durableAdvanced.await(100, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException(
+                    "Interrupted waiting for journal record " + sequence
+            ));
+        } finally {
+            durableLock.unlock();
+        }
+    }
+    public synchronized long replay(long afterSequence, Consumer<JournalRecord> consumer) {
+        long last = afterSequence;
+        List<Path> segments = listSegments();
+        for (int i = 0; i < segments.size(); i++) {
+            if (i + 1 < segments.size() && segmentStart(segments.get(i + 1)) <= afterSequence + 1) {
+                continue;
+            }
+            Path segment = segments.get(i);
+            try (DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(Files.newInputStream(segment)))) {
+                int magic = in.readInt();
+                int version = in.readUnsignedByte();
+                if (magic != SEGMENT_MAGIC || version < TransactionCodec.DOUBLE_AMOUNT_VERSION
+                        || version > FORMAT_VERSION) {
+                    System.err.println("❌ Skipping unrecognised journal segment " + segment);
+                    continue;
+                }
+                JournalRecord record;
+                while ((record = readFrame(in, version)) != null) {
+                    if (record.getSequence() <= afterSequence) continue;
+                    consumer.accept(record);
+                    last = Math.max(last, record.getSequence());
+                }
+            } catch (IOException e) {
+                System.err.println("❌ Failed to replay journal segment " + segment);
+                e.printStackTrace();
+            }
+        }
+        nextSequence = Math.max(nextSequence, last + 1);
+        recovered = true;
+        return last;
+    }
+    public synchronized long getLastSequence() {
+        return nextSequence - 1;
+    }
+    public synchronized long rollover() {
+        synchronized (writeLock) {
+            checkWritable();
+            if (channel == null) return nextSequence - 1;
+            flush();
+            checkWritable();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("❌ Failed to close journal segment");
+                e.printStackTrace();
+            }
+            channel = null;
+        }
+        return nextSequence - 1;
+    }
+    public synchronized int truncateThrough(long sequence) {
+        List<Path> segments = listSegments();
+        int removed = 0;
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (segmentStart(segments.get(i + 1)) > sequence + 1) break;
+            try {
+                Files.deleteIfExists(segments.get(i));
+                removed++;
+            } catch (IOException e) {
+                System.err.println("❌ Failed to delete journal segment " + segments.get(i));
+                e.printStackTrace();
+            }
+        }
+        return removed;
+    }
+    public void flush() {
+        synchronized (writeLock) {
+            if (channel == null) return;
+            try {
+                channel.force(false);
+                dirty = false;
+            } catch (IOException e) {
+                recordFailure("Failed to fsync journal", e);
+            }
+        }
+    }
+    @Override
+    public void close() {
+        if (fsyncScheduler != null) {
+            fsyncScheduler.shutdownNow();
+        }
+        if (groupCommitWriter != null) {
+            synchronized (this) {
+                closed = true;
+                notifyAll();
+            }
+            try {
+                groupCommitWriter.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (writeLock) {
+            if (channel == null) return;
+            flush();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("❌ Failed to close journal");
+                e.printStackTrace();
+            }
+            channel = null;
+        }
+    }
+    private void flushIfDirty() {
+        synchronized (writeLock) {
+            if (dirty) {
+                flush();
+            }
+        }
+    }
+    private void runGroupCommit() {
+        List<Frame> batch = new ArrayList<>();
+        while (true) {
+            synchronized (this) {
+                while (pending.isEmpty() && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        closed = true;
+                    }
+                }
+                if (pending.isEmpty()) return;
+                long deadline = System.nanoTime() + groupCommitDelayNanos;
+                long remaining;
+                while (pending.size() < groupCommitRecords && !closed
+                        && (remaining = deadline - System.nanoTime()) > 0) {
+                    try {
+                        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                    } catch (InterruptedException e) {
+                        closed = true;
+                    }
+                }
+                List<Frame> ready = pending;
+                pending = batch;
+                batch = ready;
+            }
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+    private void writeBatch(List<Frame> batch) {
+        synchronized (writeLock) {
+            if (failure != null) return;
+            try {
+                for (Frame frame : batch) {
+                    writeFrame(frame.sequence, frame.payload);
+                }
+                channel.force(false);
+                dirty = false;
+            } catch (IOException e) {
+                recordFailure("Failed to commit journal batch of " + batch.size() + " records", e);
+                return;
+            }
+        }
+        markDurable(batch.get(batch.size() - 1).sequence);
+    }
+    private void markDurable(long sequence) {
+        durableLock.lock();
+        try {
+            durableSequence = sequence;
+            durableAdvanced.signalAll();
+        } finally {
+            durableLock.unlock();
+        }
+    }
+    private void recordFailure(String message, IOException e) {
+        System.err.println("❌ " + message + ", rejecting further journal appends");
+        e.printStackTrace();
+        if (failure == null) {
+            failure = e;
+        }
+        durableLock.lock();
+        try {
+            durableAdvanced.signalAll();
+        } finally {
+            durableLock.unlock();
+        }
+    }
+    private void checkWritable() {
+        IOException cause = failure;
+        if (cause != null) {
+            throw new UncheckedIOException("Journal is unavailable after a failed write", cause);
+        }
+    }
+    private void writeFrame(long sequence, byte[] payload) throws IOException {
+        int frameBytes = 8 + payload.length;
+        if (channel == null || segmentBytes + frameBytes > maxSegmentBytes) {
+            rollSegment(sequence);
+        }
+        crc.reset();
+        crc.update(payload);
+        ByteBuffer buffer = ByteBuffer.allocate(frameBytes);
+        buffer.putInt(payload.length);
+        buffer.putInt((int) crc.getValue());
+        buffer.put(payload);
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        segmentBytes += frameBytes;
+    }
+    private void rollSegment(long firstSequence) throws IOException {
+        if (channel != null) {
+            channel.force(false);
+            channel.close();
+        }
+        Path segment = directory.resolve(
+                String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence - 1, SEGMENT_SUFFIX)
+        );
+        channel = FileChannel.open(
+                segment,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE
+        );
+        ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_BYTES);
+        header.putInt(SEGMENT_MAGIC);
+        header.put(FORMAT_VERSION);
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        segmentBytes = SEGMENT_HEADER_BYTES;
+        dirty = true;
+    }
+    private JournalRecord readFrame(DataInputStream in, int version) throws IOException {
+        int length;
+        int expectedCrc;
+        byte[] payload;
+        try {
+            length = in.readInt();
+            expectedCrc = in.readInt();
+            if (length <= 0) return null;
+            payload = new byte[length];
+            in.readFully(payload);
+        } catch (EOFException e) {
+            return null;
+        }
+        crc.reset();
+        crc.update(payload);
+        if ((int) crc.getValue() != expectedCrc) {
+            System.err.println("❌ Journal checksum mismatch, ignoring torn tail");
+            return null;
+        }
+        DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload));
+        long sequence = record.readLong();
+        List<Transaction> txns;
+        if (version >= TransactionCodec.BATCH_RECORD_VERSION) {
+            int txnCount = record.readUnsignedShort();
+            txns = new ArrayList<>(txnCount);
+            for (int i = 0; i < txnCount; i++) {
+                txns.add(TransactionCodec.read(record, version));
+            }
+        } else {
+            txns = List.of(TransactionCodec.read(record, version));
+        }
+        int count = record.readUnsignedShort();
+        List<JournalRecord.BalanceEntry> balances = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            balances.add(new JournalRecord.BalanceEntry(
+                    record.readUTF(),
+                    TransactionCodec.readAmount(record, version),
+                    TransactionCodec.readAmount(record, version)
+            ));
+        }
+        return new JournalRecord(sequence, txns, balances);
+    }
+    private long segmentStart(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(
+                name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())
+        );
+    }
+    private List<Path> listSegments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            System.err.println("❌ Failed to list journal segments");
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+    private static class Frame {
+        private final long sequence;
+        private final byte[] payload;
+        Frame(long sequence, byte[] payload) {
+            this.sequence = sequence;
+            this.payload = payload;
+        }
+    }
+    public enum FsyncPolicy {
+        ALWAYS,
+        GROUP,
+        INTERVAL,
+        NEVER;
+        public static FsyncPolicy parse(String value) {
+            if (value == null || value.isBlank()) {
+                return GROUP;
+            }
+            return FsyncPolicy.valueOf(value.trim().toUpperCase());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,94 @@
+package core;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+public class LedgerSnapshot {
+    private static final int SNAPSHOT_MAGIC = 0x57534E50;
+    private static final byte FORMAT_VERSION = TransactionCodec.COMPACT_RECORD_VERSION;
+    private final long sequence;
+    private final long createdAt;
+    private final List<JournalRecord.BalanceEntry> balances;
+    private final List<Transaction> transactions;
+    LedgerSnapshot(
+            long sequence,
+            long createdAt,
+            List<JournalRecord.BalanceEntry> balances,
+            List<Transaction> transactions
+    ) {
+        this.sequence = sequence;
+        this.createdAt = createdAt;
+        this.balances = balances;
+        this.transactions = transactions;
+    }
+    static LedgerSnapshot capture(
+            long sequence,
+            Iterable<User> users,
+            Iterable<Transaction> transactions
+    ) {
+        return captureBalances(sequence, users).withTransactions(transactions);
+    }
+    static LedgerSnapshot captureBalances(long sequence, Iterable<User> users) {
+        List<JournalRecord.BalanceEntry> balances = new ArrayList<>();
+        for (User user : users) {
+            User.Balances current = user.getBalances();
+            balances.add(new JournalRecord.BalanceEntry(
+                    user.getUserId(),
+                    current.getWalletBalanceCents(),
+                    current.getBankBalanceCents()
+            ));
+        }
+        return new LedgerSnapshot(sequence, System.currentTimeMillis(), balances, List.of());
+    }
+    LedgerSnapshot withTransactions(Iterable<Transaction> transactions) {
+        List<Transaction> copy = new ArrayList<>();
+        transactions.forEach(copy::add);
+        return new LedgerSnapshot(sequence, createdAt, balances, copy);
+    }
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeByte(FORMAT_VERSION);
+        out.writeLong(sequence);
+        out.writeLong(createdAt);
+        out.writeInt(balances.size());
+        for (JournalRecord.BalanceEntry entry : balances) {
+            out.writeUTF(entry.getUserId());
+            out.writeLong(entry.getWalletBalanceCents());
+            out.writeLong(entry.getBankBalanceCents());
+        }
+        TransactionCodec.writeCompact(out, transactions);
+    }
+    static LedgerSnapshot readFrom(DataInputStream in) throws IOException {
+        int magic = in.readInt();
+        int version = in.readUnsignedByte();
+        if (magic != SNAPSHOT_MAGIC || version < TransactionCodec.DOUBLE_AMOUNT_VERSION
+                || version > FORMAT_VERSION) {
+            throw new IOException("Unrecognised snapshot format");
+        }
+        long sequence = in.readLong();
+        long createdAt = in.readLong();
+        int userCount = in.readInt();
+        List<JournalRecord.BalanceEntry> balances = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            balances.add(new JournalRecord.BalanceEntry(
+                    in.readUTF(),
+                    TransactionCodec.readAmount(in, version),
+                    TransactionCodec.readAmount(in, version)
+            ));
+        }
+        if (version >= TransactionCodec.COMPACT_RECORD_VERSION) {
+            return new LedgerSnapshot(sequence, createdAt, balances, TransactionCodec.readCompact(in));
+        }
+        int txnCount = in.readInt();
+        List<Transaction> transactions = new ArrayList<>(txnCount);
+        for (int i = 0; i < txnCount; i++) {
+            transactions.add(TransactionCodec.read(in, version));
+        }
+        return new LedgerSnapshot(sequence, createdAt, balances, transactions);
+    }
+    public long getSequence() { return sequence; }
+    public long getCreatedAt() { return createdAt; }
+    public List<JournalRecord.BalanceEntry> getBalances() { return balances; }
+    public List<Transaction> getTransactions() { return transactions; }
+}
\ No newline at end of file
@@ -0,0 +1,105 @@
+package core;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+public class MaintenanceService {
+    private static final long DEFAULT_INTERVAL_MS = 1000;
+    private static final long DEFAULT_SLICE_MICROS = 2000;
+    private static final int CLOCK_CHECK_EVERY = 32;
+    private final long intervalMs;
+    private final long sliceNanos;
+    private final List<SweepTask> tasks = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService scheduler;
+    public MaintenanceService(long intervalMs, long sliceMicros) {
+        this.intervalMs = intervalMs;
+        this.sliceNanos = TimeUnit.MICROSECONDS.toNanos(sliceMicros);
+    }
+    public static MaintenanceService fromEnvironment() {
+        long intervalMs = DEFAULT_INTERVAL_MS;
+        if (System.getenv("WALLET_SWEEP_INTERVAL_MS") != null) {
+            intervalMs = Long.parseLong(System.getenv("WALLET_SWEEP_INTERVAL_MS"));
+        }
+        long sliceMicros = DEFAULT_SLICE_MICROS;
+        if (System.getenv("WALLET_SWEEP_SLICE_US") != null) {
+            sliceMicros = Long.parseLong(System.getenv("WALLET_SWEEP_SLICE_US"));
+        }
+        return new MaintenanceService(intervalMs, sliceMicros);
+    }
+    public void register(Sweepable sweepable) {
+        tasks.add(new SweepTask(sweepable));
+    }
+    public synchronized void start() {
+        if (scheduler != null) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "wallet-maintenance");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(
+                this::runSlice,
+                intervalMs,
+                intervalMs,
+                TimeUnit.MILLISECONDS
+        );
+    }
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+    public synchronized void runSlice() {
+        for (SweepTask task : tasks) {
+            try {
+                task.sweepSlice(System.currentTimeMillis(), System.nanoTime() + sliceNanos);
+            } catch (Exception e) {
+                System.err.println("❌ Sweep of " + task.sweepable.getSweepName() + " failed");
+                e.printStackTrace();
+            }
+        }
+    }
+    public Map<String, Long> getReclaimedEntries() {
+        Map<String, Long> reclaimed = new LinkedHashMap<>();
+        for (SweepTask task : tasks) {
+            reclaimed.put(task.sweepable.getSweepName(), task.reclaimed);
+        }
+        return reclaimed;
+    }
+    private static class SweepTask {
+        private final Sweepable sweepable;
+        private Iterator<String> cursor;
+        private long passReclaimed;
+        private volatile long reclaimed;
+        SweepTask(Sweepable sweepable) {
+            this.sweepable = sweepable;
+        }
+        void sweepSlice(long now, long deadlineNanos) {
+            if (cursor == null) {
+                cursor = sweepable.sweepKeys();
+            }
+            int visited = 0;
+            while (cursor.hasNext()) {
+                if (sweepable.sweep(cursor.next(), now)) {
+                    passReclaimed++;
+                    reclaimed++;
+                }
+                if (++visited % CLOCK_CHECK_EVERY == 0 && System.nanoTime() > deadlineNanos) {
+                    return;
+                }
+            }
+            if (passReclaimed > 0) {
+                System.out.println(
+                        "🧹 Reclaimed " + passReclaimed + " idle entries from "
+                                + sweepable.getSweepName()
+                );
+            }
+            passReclaimed = 0;
+            cursor = null;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package core;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+public class MetricsRegistry {
+    private final Map<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+    public EndpointMetrics endpoint(String path) {
+        return endpoints.computeIfAbsent(path, EndpointMetrics::new);
+    }
+    public List<EndpointMetrics> getEndpoints() {
+        List<EndpointMetrics> list = new ArrayList<>(endpoints.values());
+        list.sort(Comparator.comparing(EndpointMetrics::getPath));
+        return list;
+    }
+}
\ No newline at end of file
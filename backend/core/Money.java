@@ -0,0 +1,52 @@
+package core;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+public final class Money {
+    public static final long CENTS_PER_UNIT = 100;
+    private static final int MAX_AMOUNT_LENGTH = 40;
+    private static final int MAX_INTEGER_DIGITS = 17;
+    private static final int MAX_FRACTION_DIGITS = 10;
+    private Money() {
+    }
+    public static long toCents(double amount) {
+        return Math.round(amount * CENTS_PER_UNIT);
+    }
+    public static long parse(String amount) {
+        if (amount == null) {
+            throw new NumberFormatException("Missing amount");
+        }
+        String trimmed = amount.trim();
+        if (trimmed.length() > MAX_AMOUNT_LENGTH) {
+            throw new NumberFormatException("Amount out of range");
+        }
+        BigDecimal value = new BigDecimal(trimmed);
+        if (value.precision() - value.scale() > MAX_INTEGER_DIGITS || value.scale() > MAX_FRACTION_DIGITS) {
+            throw new NumberFormatException("Amount out of range");
+        }
+        try {
+            return value
+                    .setScale(2, RoundingMode.HALF_UP)
+                    .movePointRight(2)
+                    .longValueExact();
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount out of range");
+        }
+    }
+    public static String format(long cents) {
+        StringBuilder sb = new StringBuilder(24);
+        appendTo(sb, cents);
+        return sb.toString();
+    }
+    public static void appendTo(StringBuilder sb, long cents) {
+        if (cents < 0) {
+            sb.append('-');
+            cents = -cents;
+        }
+        long fraction = cents % CENTS_PER_UNIT;
+        sb.append(cents / CENTS_PER_UNIT).append('.');
+        if (fraction < 10) {
+            sb.append('0');
+        }
+        sb.append(fraction);
+    }
+}
\ No newline at end of file
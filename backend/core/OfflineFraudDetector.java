@@ -1,9 +1,10 @@
 package core;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
-public class OfflineFraudDetector {
+public class OfflineFraudDetector implements Sweepable {
     private static final int MAX_OFFLINE_VELOCITY = 5;
     private static final long OFFLINE_VELOCITY_WINDOW_MS = 60_000;
     private static final long HISTORY_RETENTION_MS = 60 * 60 * 1000;
@@ -82,10 +83,14 @@ public class OfflineFraudDetector {
             double amount,
             OfflineActivityType type
     ) {
-        offlineActivity
-                .computeIfAbsent(userId, k -> new CopyOnWriteArrayList<>())
-                .add(new OfflineFraudRecord(amount, type, System.currentTimeMillis()));
-        cleanupOldRecords(userId);
+        OfflineFraudRecord record =
+                new OfflineFraudRecord(amount, type, System.currentTimeMillis());
+        offlineActivity.compute(userId, (k, history) -> {
+            List<OfflineFraudRecord> list =
+                    history == null ? new CopyOnWriteArrayList<>() : history;
+            list.add(record);
+            return list;
+        });
     }
     public void recordSyncFailure(String userId) {
         int attempts = failedSyncAttempts.getOrDefault(userId, 0) + 1;
@@ -95,23 +100,36 @@ public class OfflineFraudDetector {
         }
     }
     public void recordSyncSuccess(String userId) {
-        failedSyncAttempts.put(userId, 0);
+        failedSyncAttempts.remove(userId);
     }
     public void disableOfflineMode(String userId) {
         offlineModeDisabled.put(userId, true);
     }
     public void enableOfflineMode(String userId) {
-        offlineModeDisabled.put(userId, false);
-        failedSyncAttempts.put(userId, 0);
+        offlineModeDisabled.remove(userId);
+        failedSyncAttempts.remove(userId);
     }
     public boolean isOfflineModeDisabled(String userId) {
         return offlineModeDisabled.getOrDefault(userId, false);
     }
-    private void cleanupOldRecords(String userId) {
-        List<OfflineFraudRecord> history = offlineActivity.get(userId);
-        if (history == null) return;
-        long cutoff = System.currentTimeMillis() - HISTORY_RETENTION_MS;
-        history.removeIf(r -> r.timestamp < cutoff);
+    @Override
+    public String getSweepName() {
+        return "offline fraud activity";
+    }
+    @Override
+    public Iterator<String> sweepKeys() {
+        return offlineActivity.keySet().iterator();
+    }
+    @Override
+    public boolean sweep(String userId, long now) {
+        long cutoff = now - HISTORY_RETENTION_MS;
+        boolean[] evicted = {false};
+        offlineActivity.computeIfPresent(userId, (k, history) -> {
+            history.removeIf(r -> r.timestamp < cutoff);
+            evicted[0] = history.isEmpty();
+            return evicted[0] ? null : history;
+        });
+        return evicted[0];
     }
     private static class OfflineFraudRecord {
         private final double amount;
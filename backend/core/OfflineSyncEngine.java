@@ -1,14 +1,14 @@
 package core;
 import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.util.*;
-import java.util.concurrent.locks.ReentrantLock;
 public class OfflineSyncEngine {
     private final TransactionEngine transactionEngine;
     private final UserManager userManager;
     private final OfflineTransactionManager offlineTransactionManager;
     private final OfflineFraudDetector offlineFraudDetector;
-    private final ReentrantLock syncLock = new ReentrantLock();
+    private static final int SYNC_LOCK_STRIPES = 256;
+    private final AccountLockManager syncLocks =
+            new AccountLockManager(AccountLockManager.Mode.STRIPED, SYNC_LOCK_STRIPES);
     public OfflineSyncEngine(
             TransactionEngine transactionEngine,
             UserManager userManager,
@@ -31,7 +31,7 @@ public class OfflineSyncEngine {
         if (user == null) {
             return SyncResult.failure("User not found");
         }
-        syncLock.lock();
+        syncLocks.lock(userId);
         try {
             offlineTransactions.sort(
                     Comparator.comparingLong(OfflineTransaction::getClientTimestamp)
@@ -48,7 +48,8 @@ public class OfflineSyncEngine {
                     result = transactionEngine.transfer(
                             userId,
                             txn.getReceiverId(),
-                            txn.getAmount()
+                            Money.toCents(txn.getAmount()),
+                            txn.getClientTransactionId()
                     );
                 } else {
                     failures.add(SyncFailure.of(txn, "Unsupported offline transaction"));
@@ -60,8 +61,9 @@ public class OfflineSyncEngine {
                                     txn.getClientTransactionId(),
                                     result.getTransactionId(),
                                     txn.getType(),
-                                    txn.getAmount(),
-                                    result.getNewBalance()
+                                    Money.toCents(txn.getAmount()),
+                                    result.getNewBalanceCents(),
+                                    result.isReplayed()
                             )
                     );
                     offlineTransactionManager.markTransactionSynced(
@@ -82,7 +84,7 @@ public class OfflineSyncEngine {
             offlineFraudDetector.recordSyncFailure(userId);
             return SyncResult.failure("Sync failed: " + e.getMessage());
         } finally {
-            syncLock.unlock();
+            syncLocks.unlock(userId);
         }
     }
     private boolean validateIntegrity(OfflineTransaction txn) {
@@ -91,19 +93,7 @@ public class OfflineSyncEngine {
                 txn.getAmount() + "|" +
                 txn.getClientTimestamp() + "|" +
                 (txn.getReceiverId() == null ? "" : txn.getReceiverId());
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] hash = md.digest(data.getBytes(StandardCharsets.UTF_8));
-            return bytesToHex(hash).equals(txn.getSignature());
-        } catch (Exception e) {
-            return false;
-        }
-    }
-    private String bytesToHex(byte[] bytes) {
-        StringBuilder sb = new StringBuilder();
-        for (byte b : bytes) {
-            sb.append(String.format("%02x", b));
-        }
-        return sb.toString();
+        byte[] hash = CryptoProvider.sha256(data.getBytes(StandardCharsets.UTF_8));
+        return CryptoProvider.hexEquals(hash, txn.getSignature());
     }
 }
\ No newline at end of file
@@ -1,12 +1,14 @@
 package core;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
-public class OfflineTransactionManager {
+public class OfflineTransactionManager implements Sweepable {
     private static final double MAX_OFFLINE_TRANSACTION_AMOUNT = 5_000.0;
     private static final double MAX_DAILY_OFFLINE_SPEND = 15_000.0;
     private static final int MAX_OFFLINE_TRANSACTION_COUNT = 20;
+    private static final long DAILY_WINDOW_MS = 24 * 60 * 60 * 1000;
     private final Map<String, List<OfflineTransactionRecord>> userOfflineHistory =
             new ConcurrentHashMap<>();
     public OfflineLimitCheckResult validateOfflineTransaction(
@@ -26,11 +28,9 @@ public class OfflineTransactionManager {
             return OfflineLimitCheckResult.blocked("Insufficient shadow balance");
         }
         List<OfflineTransactionRecord> history =
-                userOfflineHistory.computeIfAbsent(
-                        userId, k -> new CopyOnWriteArrayList<>()
-                );
+                userOfflineHistory.getOrDefault(userId, List.of());
         long now = System.currentTimeMillis();
-        long dayStart = now - (24 * 60 * 60 * 1000);
+        long dayStart = now - DAILY_WINDOW_MS;
         double dailySpend = history.stream()
                 .filter(r -> r.timestamp >= dayStart)
                 .mapToDouble(r -> r.amount)
@@ -55,13 +55,17 @@ public class OfflineTransactionManager {
             double amount,
             String clientTxnId
     ) {
-        userOfflineHistory
-                .computeIfAbsent(userId, k -> new CopyOnWriteArrayList<>())
-                .add(new OfflineTransactionRecord(
-                        amount,
-                        clientTxnId,
-                        System.currentTimeMillis()
-                ));
+        OfflineTransactionRecord record = new OfflineTransactionRecord(
+                amount,
+                clientTxnId,
+                System.currentTimeMillis()
+        );
+        userOfflineHistory.compute(userId, (k, history) -> {
+            List<OfflineTransactionRecord> list =
+                    history == null ? new CopyOnWriteArrayList<>() : history;
+            list.add(record);
+            return list;
+        });
     }
     public void markTransactionSynced(String userId, String clientTxnId) {
         List<OfflineTransactionRecord> history = userOfflineHistory.get(userId);
@@ -79,6 +83,25 @@ public class OfflineTransactionManager {
         long cutoff = System.currentTimeMillis() - olderThanMs;
         history.removeIf(r -> r.synced && r.timestamp < cutoff);
     }
+    @Override
+    public String getSweepName() {
+        return "offline transaction history";
+    }
+    @Override
+    public Iterator<String> sweepKeys() {
+        return userOfflineHistory.keySet().iterator();
+    }
+    @Override
+    public boolean sweep(String userId, long now) {
+        long cutoff = now - DAILY_WINDOW_MS;
+        boolean[] evicted = {false};
+        userOfflineHistory.computeIfPresent(userId, (k, history) -> {
+            history.removeIf(r -> r.synced && r.timestamp < cutoff);
+            evicted[0] = history.isEmpty();
+            return evicted[0] ? null : history;
+        });
+        return evicted[0];
+    }
     public double getMaxOfflineTransactionAmount() {
         return MAX_OFFLINE_TRANSACTION_AMOUNT;
     }
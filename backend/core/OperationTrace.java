@@ -0,0 +1,75 @@
+package core;
+public class OperationTrace {
+    static final OperationTrace DISABLED = new OperationTrace(null, null, null, 0, false);
+    private final Transaction.TransactionType type;
+    private final String userId;
+    private final String counterpartyId;
+    private final long amountCents;
+    private final boolean active;
+    private final long startedAt;
+    private final long startNanos;
+    private final long[] phaseNanos = new long[Phase.values().length];
+    private long lastMarkNanos;
+    private long totalNanos;
+    private boolean success;
+    private String message;
+    private String transactionId;
+    OperationTrace(
+            Transaction.TransactionType type,
+            String userId,
+            String counterpartyId,
+            long amountCents,
+            boolean active
+    ) {
+        this.type = type;
+        this.userId = userId;
+        this.counterpartyId = counterpartyId;
+        this.amountCents = amountCents;
+        this.active = active;
+        this.startedAt = active ? System.currentTimeMillis() : 0;
+        this.startNanos = active ? System.nanoTime() : 0;
+        this.lastMarkNanos = startNanos;
+    }
+    public void mark(Phase phase) {
+        if (!active) return;
+        long now = System.nanoTime();
+        phaseNanos[phase.ordinal()] += now - lastMarkNanos;
+        lastMarkNanos = now;
+    }
+    boolean isActive() {
+        return active;
+    }
+    void finish(TransactionResult result) {
+        totalNanos = System.nanoTime() - startNanos;
+        success = result.isSuccess();
+        message = result.getMessage();
+        transactionId = result.getTransactionId();
+    }
+    public Transaction.TransactionType getType() { return type; }
+    public String getUserId() { return userId; }
+    public String getCounterpartyId() { return counterpartyId; }
+    public long getAmountCents() { return amountCents; }
+    public long getStartedAt() { return startedAt; }
+    public long getTotalNanos() { return totalNanos; }
+    public long getPhaseNanos(Phase phase) { return phaseNanos[phase.ordinal()]; }
+    public long getUnattributedNanos() {
+        long attributed = 0;
+        for (long nanos : phaseNanos) {
+            attributed += nanos;
+        }
+        return Math.max(0, totalNanos - attributed);
+    }
+    public boolean isSuccess() { return success; }
+    public String getMessage() { return message; }
+    public String getTransactionId() { return transactionId; }
+    public enum Phase {
+        VALIDATE,
+        FRAUD_CHECK,
+        PREPARE,
+        LOCK_WAIT,
+        APPLY,
+        PERSIST,
+        FRAUD_RECORD,
+        RELEASE
+    }
+}
\ No newline at end of file
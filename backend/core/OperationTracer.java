@@ -0,0 +1,88 @@
+package core;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+public class OperationTracer {
+    private static final long DEFAULT_SLOW_THRESHOLD_MS = 50;
+    private static final int DEFAULT_CAPACITY = 256;
+    private final AtomicReferenceArray<OperationTrace> slowTraces;
+    private final AtomicLong slowCount = new AtomicLong();
+    private final AtomicLong tracedCount = new AtomicLong();
+    private volatile boolean enabled;
+    private volatile long slowThresholdNanos;
+    public OperationTracer(boolean enabled, long slowThresholdMs, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Trace buffer capacity must be positive");
+        }
+        this.enabled = enabled;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+        this.slowTraces = new AtomicReferenceArray<>(capacity);
+    }
+    public static OperationTracer fromEnvironment() {
+        boolean enabled = Boolean.parseBoolean(System.getenv("WALLET_TRACE"));
+        long slowThresholdMs = DEFAULT_SLOW_THRESHOLD_MS;
+        if (System.getenv("WALLET_TRACE_SLOW_MS") != null) {
+            slowThresholdMs = Long.parseLong(System.getenv("WALLET_TRACE_SLOW_MS"));
+        }
+        int capacity = DEFAULT_CAPACITY;
+        if (System.getenv("WALLET_TRACE_BUFFER") != null) {
+            capacity = Integer.parseInt(System.getenv("WALLET_TRACE_BUFFER"));
+        }
+        return new OperationTracer(enabled, slowThresholdMs, capacity);
+    }
+    public OperationTrace begin(
+            Transaction.TransactionType type,
+            String userId,
+            String counterpartyId,
+            long amountCents
+    ) {
+        if (!enabled) return OperationTrace.DISABLED;
+        return new OperationTrace(type, userId, counterpartyId, amountCents, true);
+    }
+    public void finish(OperationTrace trace, TransactionResult result) {
+        if (!trace.isActive()) return;
+        trace.finish(result);
+        tracedCount.incrementAndGet();
+        if (trace.getTotalNanos() < slowThresholdNanos) return;
+        long slot = slowCount.getAndIncrement();
+        slowTraces.set((int) (slot % slowTraces.length()), trace);
+    }
+    public List<OperationTrace> getSlowTraces(int limit) {
+        long newest = slowCount.get();
+        int available = (int) Math.min(newest, slowTraces.length());
+        List<OperationTrace> traces = new ArrayList<>(Math.min(limit, available));
+        for (long slot = newest - 1; slot >= newest - available && traces.size() < limit; slot--) {
+            OperationTrace trace = slowTraces.get((int) (slot % slowTraces.length()));
+            if (trace != null) traces.add(trace);
+        }
+        return traces;
+    }
+    public void clear() {
+        for (int i = 0; i < slowTraces.length(); i++) {
+            slowTraces.set(i, null);
+        }
+    }
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    public void setSlowThresholdMs(long slowThresholdMs) {
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+    }
+    public boolean isEnabled() {
+        return enabled;
+    }
+    public long getSlowThresholdMs() {
+        return TimeUnit.NANOSECONDS.toMillis(slowThresholdNanos);
+    }
+    public int getCapacity() {
+        return slowTraces.length();
+    }
+    public long getTracedCount() {
+        return tracedCount.get();
+    }
+    public long getSlowCount() {
+        return slowCount.get();
+    }
+}
\ No newline at end of file
@@ -1,16 +1,29 @@
 package core;
 import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 public class PersistenceManager {
     private static final String DATA_DIR_NAME = "wallet_data";
     private static final Path DATA_DIR =
             Paths.get(System.getProperty("user.dir"), DATA_DIR_NAME);
     private static final Path USERS_FILE = DATA_DIR.resolve("users.dat");
     private static final Path TRANSACTIONS_FILE = DATA_DIR.resolve("transactions.dat");
+    private static final Path JOURNAL_DIR = DATA_DIR.resolve("journal");
+    private static final Path SNAPSHOT_DIR = DATA_DIR.resolve("snapshots");
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
     static {
         try {
             Files.createDirectories(DATA_DIR);
@@ -74,6 +87,83 @@ public class PersistenceManager {
             return new HashMap<>();
         }
     }
+    public static void saveSnapshot(LedgerSnapshot snapshot) {
+        try {
+            Files.createDirectories(SNAPSHOT_DIR);
+            Path target = getSnapshotFile(snapshot.getSequence());
+            Path temp = SNAPSHOT_DIR.resolve(target.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(
+                    temp,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE
+            )) {
+                DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16)
+                );
+                snapshot.writeTo(out);
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to save snapshot", e);
+        }
+    }
+    public static LedgerSnapshot loadLatestSnapshot() {
+        List<Path> snapshots = listSnapshots();
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            Path path = snapshots.get(i);
+            try (DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+                return LedgerSnapshot.readFrom(in);
+            } catch (IOException e) {
+                System.err.println("❌ Failed to load snapshot " + path + ", trying an older one");
+                e.printStackTrace();
+            }
+        }
+        return null;
+    }
+    public static synchronized void pruneSnapshots(int keep) {
+        List<Path> snapshots = listSnapshots();
+        for (int i = 0; i < snapshots.size() - keep; i++) {
+            try {
+                Files.deleteIfExists(snapshots.get(i));
+            } catch (IOException e) {
+                System.err.println("❌ Failed to delete snapshot " + snapshots.get(i));
+                e.printStackTrace();
+            }
+        }
+    }
+    private static List<Path> listSnapshots() {
+        if (!Files.isDirectory(SNAPSHOT_DIR)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(SNAPSHOT_DIR)) {
+            return files
+                    .filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX);
+                    })
+                    .sorted(Comparator.comparing(p -> p.getFileName().toString()))
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            System.err.println("❌ Failed to list snapshots");
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+    public static Path getJournalDirectory() {
+        return JOURNAL_DIR;
+    }
+    public static Path getTransactionsFile() {
+        return TRANSACTIONS_FILE;
+    }
+    public static Path getSnapshotFile(long sequence) {
+        return SNAPSHOT_DIR.resolve(
+                String.format("%s%020d%s", SNAPSHOT_PREFIX, sequence, SNAPSHOT_SUFFIX)
+        );
+    }
     private static void ensureDirectory() {
         try {
             Files.createDirectories(DATA_DIR);
@@ -0,0 +1,36 @@
+package core;
+public class RecoveryReport {
+    private final long snapshotSequence;
+    private final int snapshotTransactions;
+    private final long replayedRecords;
+    private final long lastSequence;
+    private final long durationMs;
+    public RecoveryReport(
+            long snapshotSequence,
+            int snapshotTransactions,
+            long replayedRecords,
+            long lastSequence,
+            long durationMs
+    ) {
+        this.snapshotSequence = snapshotSequence;
+        this.snapshotTransactions = snapshotTransactions;
+        this.replayedRecords = replayedRecords;
+        this.lastSequence = lastSequence;
+        this.durationMs = durationMs;
+    }
+    public long getSnapshotSequence() { return snapshotSequence; }
+    public int getSnapshotTransactions() { return snapshotTransactions; }
+    public long getReplayedRecords() { return replayedRecords; }
+    public long getLastSequence() { return lastSequence; }
+    public long getDurationMs() { return durationMs; }
+    @Override
+    public String toString() {
+        return "RecoveryReport{" +
+                "snapshotSequence=" + snapshotSequence +
+                ", snapshotTransactions=" + snapshotTransactions +
+                ", replayedRecords=" + replayedRecords +
+                ", lastSequence=" + lastSequence +
+                ", durationMs=" + durationMs +
+                '}';
+    }
+}
\ No newline at end of file
@@ -0,0 +1,158 @@
+package core;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+public class RequestExecutor implements Executor {
+    private static final int DEFAULT_THREADS = 10;
+    private static final int DEFAULT_MAX_CONCURRENCY = 1000;
+    private static final int OVERFLOW_QUEUE_CAPACITY = 256;
+    private static final ThreadLocal<Boolean> SATURATED = new ThreadLocal<>();
+    private final Mode requestedMode;
+    private final Mode mode;
+    private final ExecutorService delegate;
+    private final ExecutorService overflow;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong overflowed = new AtomicLong();
+    public RequestExecutor(Mode mode, int threads, int maxConcurrency) {
+        this.requestedMode = mode;
+        ExecutorService virtual = mode == Mode.VIRTUAL ? newVirtualThreadExecutor() : null;
+        if (virtual != null) {
+            this.mode = Mode.VIRTUAL;
+            this.delegate = virtual;
+        } else {
+            this.mode = Mode.FIXED;
+            this.delegate = Executors.newFixedThreadPool(threads);
+        }
+        this.overflow = new ThreadPoolExecutor(
+                1,
+                1,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(OVERFLOW_QUEUE_CAPACITY),
+                OverflowThread::new,
+                RequestExecutor::shedInline
+        );
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency);
+    }
+    public static RequestExecutor fromEnvironment() {
+        Mode mode = Mode.parse(System.getenv("WALLET_EXECUTOR"));
+        int threads = DEFAULT_THREADS;
+        if (System.getenv("WALLET_EXECUTOR_THREADS") != null) {
+            threads = Integer.parseInt(System.getenv("WALLET_EXECUTOR_THREADS"));
+        }
+        int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+        if (System.getenv("WALLET_MAX_CONCURRENCY") != null) {
+            maxConcurrency = Integer.parseInt(System.getenv("WALLET_MAX_CONCURRENCY"));
+        }
+        return new RequestExecutor(mode, threads, maxConcurrency);
+    }
+    @Override
+    public void execute(Runnable command) {
+        if (!permits.tryAcquire()) {
+            overflowed.incrementAndGet();
+            overflow.execute(command);
+            return;
+        }
+        try {
+            delegate.execute(() -> run(command));
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw e;
+        }
+    }
+    public static boolean isOverloaded() {
+        return Thread.currentThread() instanceof OverflowThread || isSaturated();
+    }
+    public static boolean isSaturated() {
+        return SATURATED.get() != null;
+    }
+    public void shutdown() {
+        overflow.shutdown();
+        delegate.shutdown();
+        try {
+            delegate.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    public Mode getRequestedMode() {
+        return requestedMode;
+    }
+    public Mode getMode() {
+        return mode;
+    }
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+    public int getActiveCount() {
+        return active.get();
+    }
+    public int getPeakConcurrency() {
+        return peak.get();
+    }
+    public long getCompletedCount() {
+        return completed.get();
+    }
+    public long getOverflowCount() {
+        return overflowed.get();
+    }
+    private void run(Runnable command) {
+        int now = active.incrementAndGet();
+        peak.accumulateAndGet(now, Math::max);
+        try {
+            command.run();
+        } finally {
+            active.decrementAndGet();
+            completed.incrementAndGet();
+            permits.release();
+        }
+    }
+    private static void shedInline(Runnable command, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            throw new RejectedExecutionException("Request executor is shut down");
+        }
+        SATURATED.set(Boolean.TRUE);
+        try {
+            command.run();
+        } finally {
+            SATURATED.remove();
+        }
+    }
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+    private static final class OverflowThread extends Thread {
+        OverflowThread(Runnable task) {
+            super(task, "request-overflow");
+            setDaemon(true);
+        }
+    }
+    public enum Mode {
+        FIXED,
+        VIRTUAL;
+        public static Mode parse(String value) {
+            if (value == null || value.isBlank()) {
+                return FIXED;
+            }
+            return Mode.valueOf(value.trim().toUpperCase());
+        }
+    }
+}
\ No newline at end of file
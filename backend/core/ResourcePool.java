@@ -0,0 +1,24 @@
+package core;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.function.Supplier;
+public class ResourcePool<T> {
+    private final ArrayBlockingQueue<T> idle;
+    private final Supplier<T> factory;
+    public ResourcePool(int capacity, Supplier<T> factory) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Pool capacity must be positive");
+        }
+        this.idle = new ArrayBlockingQueue<>(capacity);
+        this.factory = factory;
+    }
+    public T acquire() {
+        T resource = idle.poll();
+        return resource != null ? resource : factory.get();
+    }
+    public void release(T resource) {
+        idle.offer(resource);
+    }
+    public int getIdleCount() {
+        return idle.size();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,149 @@
+package core;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+public class SessionStore {
+    private static final long DEFAULT_TTL_MS = 24 * 60 * 60 * 1000;
+    private static final int DEFAULT_MAX_SESSIONS = 100_000;
+    private static final long MAX_TICK_MS = 60_000;
+    private final long ttlMs;
+    private final int maxSessions;
+    private final long tickMs;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final List<ArrayDeque<Session>> wheel;
+    private final ReentrantLock wheelLock = new ReentrantLock();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+    private volatile long currentTick;
+    private long evictionTick;
+    public SessionStore(long ttlMs, int maxSessions) {
+        this.ttlMs = ttlMs;
+        this.maxSessions = maxSessions;
+        this.tickMs = Math.max(1, Math.min(MAX_TICK_MS, ttlMs / 64));
+        int slots = (int) (ttlMs / tickMs) + 2;
+        this.wheel = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            wheel.add(new ArrayDeque<>());
+        }
+        this.currentTick = System.currentTimeMillis() / tickMs;
+    }
+    public static SessionStore fromEnvironment() {
+        long ttlMs = DEFAULT_TTL_MS;
+        if (System.getenv("WALLET_SESSION_TTL_MS") != null) {
+            ttlMs = Long.parseLong(System.getenv("WALLET_SESSION_TTL_MS"));
+        }
+        int maxSessions = DEFAULT_MAX_SESSIONS;
+        if (System.getenv("WALLET_MAX_SESSIONS") != null) {
+            maxSessions = Integer.parseInt(System.getenv("WALLET_MAX_SESSIONS"));
+        }
+        return new SessionStore(ttlMs, maxSessions);
+    }
+    public void put(String token, String userId) {
+        long now = System.currentTimeMillis();
+        Session session = new Session(token, userId, now + ttlMs);
+        wheelLock.lock();
+        try {
+            advance(now);
+            while (sessions.size() >= maxSessions && evictOldest()) {
+                evicted.incrementAndGet();
+            }
+            sessions.put(token, session);
+            wheel.get(slotOf(session.expiryTime)).addLast(session);
+            created.incrementAndGet();
+        } finally {
+            wheelLock.unlock();
+        }
+    }
+    public String get(String token) {
+        long now = System.currentTimeMillis();
+        if (now / tickMs > currentTick && wheelLock.tryLock()) {
+            try {
+                advance(now);
+            } finally {
+                wheelLock.unlock();
+            }
+        }
+        Session session = sessions.get(token);
+        if (session == null) return null;
+        if (now > session.expiryTime) {
+            if (sessions.remove(token, session)) {
+                expired.incrementAndGet();
+            }
+            return null;
+        }
+        return session.userId;
+    }
+    public void remove(String token) {
+        sessions.remove(token);
+    }
+    public int getActiveSessions() {
+        return sessions.size();
+    }
+    public long getCreatedSessions() {
+        return created.get();
+    }
+    public long getExpiredSessions() {
+        return expired.get();
+    }
+    public long getEvictedSessions() {
+        return evicted.get();
+    }
+    public int getMaxSessions() {
+        return maxSessions;
+    }
+    private void advance(long now) {
+        long nowTick = now / tickMs;
+        long from = currentTick + 1;
+        if (nowTick - currentTick > wheel.size()) {
+            from = nowTick - wheel.size() + 1;
+        }
+        for (long tick = from; tick <= nowTick; tick++) {
+            ArrayDeque<Session> slot = wheel.get((int) (tick % wheel.size()));
+            Session session;
+            while ((session = slot.pollFirst()) != null) {
+                if (session.expiryTime > now) {
+                    slot.addFirst(session);
+                    break;
+                }
+                if (sessions.remove(session.token, session)) {
+                    expired.incrementAndGet();
+                }
+            }
+        }
+        currentTick = Math.max(currentTick, nowTick);
+    }
+    private boolean evictOldest() {
+        long tick = Math.max(evictionTick, currentTick + 1);
+        for (long last = currentTick + wheel.size(); tick <= last; tick++) {
+            ArrayDeque<Session> slot = wheel.get((int) (tick % wheel.size()));
+            Session session;
+            while ((session = slot.pollFirst()) != null) {
+                if (sessions.remove(session.token, session)) {
+                    evictionTick = tick;
+                    return true;
+                }
+            }
+        }
+        evictionTick = currentTick + 1;
+        return false;
+    }
+    private int slotOf(long expiryTime) {
+        long tick = (expiryTime + tickMs - 1) / tickMs;
+        return (int) (tick % wheel.size());
+    }
+    private static class Session {
+        private final String token;
+        private final String userId;
+        private final long expiryTime;
+        Session(String token, String userId, long expiryTime) {
+            this.token = token;
+            this.userId = userId;
+            this.expiryTime = expiryTime;
+        }
+    }
+}
\ No newline at end of file
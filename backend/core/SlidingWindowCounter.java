@@ -0,0 +1,57 @@
+package core;
+import java.util.Arrays;
+public class SlidingWindowCounter {
+    private static final long BUCKET_MS = 1000;
+    private final long[] counts;
+    private final long[] sums;
+    private long headBucket = Long.MIN_VALUE;
+    private long totalCount;
+    private long totalSum;
+    public SlidingWindowCounter(long windowMs) {
+        int buckets = (int) Math.max(1, windowMs / BUCKET_MS);
+        this.counts = new long[buckets];
+        this.sums = new long[buckets];
+    }
+    public synchronized void add(long nowMs, long value) {
+        long bucket = advance(nowMs);
+        int index = (int) Math.floorMod(bucket, (long) counts.length);
+        counts[index]++;
+        sums[index] += value;
+        totalCount++;
+        totalSum += value;
+    }
+    public synchronized long count(long nowMs) {
+        advance(nowMs);
+        return totalCount;
+    }
+    public synchronized long sum(long nowMs) {
+        advance(nowMs);
+        return totalSum;
+    }
+    public synchronized boolean isEmpty(long nowMs) {
+        advance(nowMs);
+        return totalCount == 0;
+    }
+    private long advance(long nowMs) {
+        long bucket = Math.floorDiv(nowMs, BUCKET_MS);
+        if (bucket <= headBucket) {
+            return headBucket;
+        }
+        if (headBucket == Long.MIN_VALUE || bucket - headBucket >= counts.length) {
+            Arrays.fill(counts, 0);
+            Arrays.fill(sums, 0);
+            totalCount = 0;
+            totalSum = 0;
+        } else {
+            for (long b = headBucket + 1; b <= bucket; b++) {
+                int index = (int) Math.floorMod(b, (long) counts.length);
+                totalCount -= counts[index];
+                totalSum -= sums[index];
+                counts[index] = 0;
+                sums[index] = 0;
+            }
+        }
+        headBucket = bucket;
+        return bucket;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,7 @@
+package core;
+import java.util.Iterator;
+public interface Sweepable {
+    String getSweepName();
+    Iterator<String> sweepKeys();
+    boolean sweep(String key, long now);
+}
\ No newline at end of file
@@ -3,24 +3,28 @@ public class SyncedTransaction {
     private final String clientTransactionId;
     private final String serverTransactionId;
     private final Transaction.TransactionType type;
-    private final double amount;
-    private final double newBalance;
+    private final long amountCents;
+    private final long newBalanceCents;
+    private final boolean replayed;
     public SyncedTransaction(
             String clientTransactionId,
             String serverTransactionId,
             Transaction.TransactionType type,
-            double amount,
-            double newBalance
+            long amountCents,
+            long newBalanceCents,
+            boolean replayed
     ) {
         this.clientTransactionId = clientTransactionId;
         this.serverTransactionId = serverTransactionId;
         this.type = type;
-        this.amount = amount;
-        this.newBalance = newBalance;
+        this.amountCents = amountCents;
+        this.newBalanceCents = newBalanceCents;
+        this.replayed = replayed;
     }
     public String getClientTransactionId() { return clientTransactionId; }
     public String getServerTransactionId() { return serverTransactionId; }
     public Transaction.TransactionType getType() { return type; }
-    public double getAmount() { return amount; }
-    public double getNewBalance() { return newBalance; }
+    public long getAmountCents() { return amountCents; }
+    public long getNewBalanceCents() { return newBalanceCents; }
+    public boolean isReplayed() { return replayed; }
 }
\ No newline at end of file
@@ -1,17 +1,20 @@
 package core;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 public class Transaction implements Serializable {
     private static final long serialVersionUID = 1L;
-    private final String transactionId;
-    private final TransactionType type;
-    private final String senderId;
-    private final String senderUsername;
-    private final String receiverId;
-    private final String receiverUsername;
-    private final double amount;
+    private String transactionId;
+    private TransactionType type;
+    private String senderId;
+    private String senderUsername;
+    private String receiverId;
+    private String receiverUsername;
+    private long amountCents;
     private TransactionStatus status;
-    private final long createdAt;
+    private long createdAt;
     private long completedAt;
+    private String clientReference;
     public Transaction(
             String transactionId,
             TransactionType type,
@@ -19,9 +22,30 @@ public class Transaction implements Serializable {
             String senderUsername,
             String receiverId,
             String receiverUsername,
-            double amount
+            long amountCents
     ) {
-        if (amount <= 0) {
+        this(
+                transactionId,
+                type,
+                senderId,
+                senderUsername,
+                receiverId,
+                receiverUsername,
+                amountCents,
+                null
+        );
+    }
+    public Transaction(
+            String transactionId,
+            TransactionType type,
+            String senderId,
+            String senderUsername,
+            String receiverId,
+            String receiverUsername,
+            long amountCents,
+            String clientReference
+    ) {
+        if (amountCents <= 0) {
             throw new IllegalArgumentException("Transaction amount must be positive");
         }
         this.transactionId = transactionId;
@@ -30,10 +54,39 @@ public class Transaction implements Serializable {
         this.senderUsername = senderUsername;
         this.receiverId = receiverId;
         this.receiverUsername = receiverUsername;
-        this.amount = round(amount);
+        this.amountCents = amountCents;
         this.status = TransactionStatus.PENDING;
         this.createdAt = System.currentTimeMillis();
         this.completedAt = 0;
+        this.clientReference = clientReference;
+    }
+    Transaction(
+            String transactionId,
+            TransactionType type,
+            String senderId,
+            String senderUsername,
+            String receiverId,
+            String receiverUsername,
+            long amountCents,
+            TransactionStatus status,
+            long createdAt,
+            long completedAt,
+            String clientReference
+    ) {
+        this.transactionId = transactionId;
+        this.type = type;
+        this.senderId = senderId;
+        this.senderUsername = senderUsername;
+        this.receiverId = receiverId;
+        this.receiverUsername = receiverUsername;
+        this.amountCents = amountCents;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.completedAt = completedAt;
+        this.clientReference = clientReference;
+    }
+    static Transaction key(long createdAt, String transactionId) {
+        return new Transaction(transactionId, null, null, null, null, null, 0, null, createdAt, 0, null);
     }
     public synchronized void markSuccess() {
         this.status = TransactionStatus.SUCCESS;
@@ -61,8 +114,8 @@ public class Transaction implements Serializable {
     public String getReceiverUsername() {
         return receiverUsername;
     }
-    public double getAmount() {
-        return amount;
+    public long getAmountCents() {
+        return amountCents;
     }
     public TransactionStatus getStatus() {
         return status;
@@ -73,8 +126,26 @@ public class Transaction implements Serializable {
     public long getCompletedAt() {
         return completedAt;
     }
-    private double round(double value) {
-        return Math.round(value * 100.0) / 100.0;
+    public String getClientReference() {
+        return clientReference;
+    }
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        transactionId = (String) fields.get("transactionId", null);
+        type = (TransactionType) fields.get("type", null);
+        senderId = (String) fields.get("senderId", null);
+        senderUsername = (String) fields.get("senderUsername", null);
+        receiverId = (String) fields.get("receiverId", null);
+        receiverUsername = (String) fields.get("receiverUsername", null);
+        status = (TransactionStatus) fields.get("status", null);
+        createdAt = fields.get("createdAt", 0L);
+        completedAt = fields.get("completedAt", 0L);
+        clientReference = (String) fields.get("clientReference", null);
+        if (fields.defaulted("amountCents")) {
+            amountCents = Money.toCents(fields.get("amount", 0.0));
+        } else {
+            amountCents = fields.get("amountCents", 0L);
+        }
     }
     @Override
     public String toString() {
@@ -83,7 +154,7 @@ public class Transaction implements Serializable {
                 ", type=" + type +
                 ", sender='" + senderUsername + '\'' +
                 ", receiver='" + receiverUsername + '\'' +
-                ", amount=" + amount +
+                ", amount=" + Money.format(amountCents) +
                 ", status=" + status +
                 '}';
     }
@@ -0,0 +1,158 @@
+package core;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+public final class TransactionCodec {
+    static final int DOUBLE_AMOUNT_VERSION = 1;
+    static final int CENTS_AMOUNT_VERSION = 2;
+    static final int CLIENT_REFERENCE_VERSION = 3;
+    static final int BATCH_RECORD_VERSION = 4;
+    static final int COMPACT_RECORD_VERSION = 5;
+    private TransactionCodec() {
+    }
+    static void write(DataOutputStream out, Transaction txn) throws IOException {
+        out.writeUTF(txn.getTransactionId());
+        out.writeByte(txn.getType().ordinal());
+        out.writeByte(txn.getStatus().ordinal());
+        writeNullable(out, txn.getSenderId());
+        writeNullable(out, txn.getSenderUsername());
+        writeNullable(out, txn.getReceiverId());
+        writeNullable(out, txn.getReceiverUsername());
+        out.writeLong(txn.getAmountCents());
+        out.writeLong(txn.getCreatedAt());
+        out.writeLong(txn.getCompletedAt());
+        writeNullable(out, txn.getClientReference());
+    }
+    static Transaction read(DataInputStream in, int version) throws IOException {
+        String transactionId = in.readUTF();
+        Transaction.TransactionType type =
+                Transaction.TransactionType.values()[in.readUnsignedByte()];
+        Transaction.TransactionStatus status =
+                Transaction.TransactionStatus.values()[in.readUnsignedByte()];
+        String senderId = readNullable(in);
+        String senderUsername = readNullable(in);
+        String receiverId = readNullable(in);
+        String receiverUsername = readNullable(in);
+        long amountCents = readAmount(in, version);
+        long createdAt = in.readLong();
+        long completedAt = in.readLong();
+        String clientReference = version >= CLIENT_REFERENCE_VERSION ? readNullable(in) : null;
+        return new Transaction(
+                transactionId,
+                type,
+                senderId,
+                senderUsername,
+                receiverId,
+                receiverUsername,
+                amountCents,
+                status,
+                createdAt,
+                completedAt,
+                clientReference
+        );
+    }
+    public static void writeCompact(DataOutputStream out, List<Transaction> txns) throws IOException {
+        Map<Map.Entry<String, String>, Integer> index = new HashMap<>();
+        List<Map.Entry<String, String>> parties = new ArrayList<>();
+        int[] refs = new int[txns.size() * 2];
+        int next = 0;
+        for (Transaction txn : txns) {
+            refs[next++] = partyRef(index, parties, txn.getSenderId(), txn.getSenderUsername());
+            refs[next++] = partyRef(index, parties, txn.getReceiverId(), txn.getReceiverUsername());
+        }
+        out.writeInt(parties.size());
+        for (Map.Entry<String, String> party : parties) {
+            writeNullable(out, party.getKey());
+            writeNullable(out, party.getValue());
+        }
+        out.writeInt(txns.size());
+        next = 0;
+        for (Transaction txn : txns) {
+            out.writeInt(refs[next++]);
+            out.writeInt(refs[next++]);
+            out.writeByte(txn.getType().ordinal());
+            out.writeByte(txn.getStatus().ordinal());
+            out.writeLong(txn.getAmountCents());
+            out.writeLong(txn.getCreatedAt());
+            out.writeLong(txn.getCompletedAt());
+            out.writeUTF(txn.getTransactionId());
+            writeNullable(out, txn.getClientReference());
+        }
+    }
+    public static List<Transaction> readCompact(DataInputStream in) throws IOException {
+        int partyCount = in.readInt();
+        String[] ids = new String[partyCount];
+        String[] usernames = new String[partyCount];
+        for (int i = 0; i < partyCount; i++) {
+            ids[i] = readNullable(in);
+            usernames[i] = readNullable(in);
+        }
+        Transaction.TransactionType[] types = Transaction.TransactionType.values();
+        Transaction.TransactionStatus[] statuses = Transaction.TransactionStatus.values();
+        int count = in.readInt();
+        List<Transaction> txns = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int sender = in.readInt();
+            int receiver = in.readInt();
+            Transaction.TransactionType type = types[in.readUnsignedByte()];
+            Transaction.TransactionStatus status = statuses[in.readUnsignedByte()];
+            long amountCents = in.readLong();
+            long createdAt = in.readLong();
+            long completedAt = in.readLong();
+            String transactionId = in.readUTF();
+            String clientReference = readNullable(in);
+            txns.add(new Transaction(
+                    transactionId,
+                    type,
+                    sender < 0 ? null : ids[sender],
+                    sender < 0 ? null : usernames[sender],
+                    receiver < 0 ? null : ids[receiver],
+                    receiver < 0 ? null : usernames[receiver],
+                    amountCents,
+                    status,
+                    createdAt,
+                    completedAt,
+                    clientReference
+            ));
+        }
+        return txns;
+    }
+    static long readAmount(DataInputStream in, int version) throws IOException {
+        if (version == DOUBLE_AMOUNT_VERSION) {
+            return Money.toCents(in.readDouble());
+        }
+        return in.readLong();
+    }
+    private static int partyRef(
+            Map<Map.Entry<String, String>, Integer> index,
+            List<Map.Entry<String, String>> parties,
+            String userId,
+            String username
+    ) {
+        if (userId == null && username == null) {
+            return -1;
+        }
+        Map.Entry<String, String> party = new AbstractMap.SimpleImmutableEntry<>(userId, username);
+        Integer ref = index.get(party);
+        if (ref == null) {
+            ref = parties.size();
+            index.put(party, ref);
+            parties.add(party);
+        }
+        return ref;
+    }
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
\ No newline at end of file
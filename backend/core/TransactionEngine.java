@@ -1,37 +1,93 @@
 package core;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.locks.ReentrantLock;
 public class TransactionEngine {
+    private static final int SNAPSHOTS_TO_KEEP = 2;
+    public static final int MAX_BATCH_TRANSFERS = 1000;
     private final UserManager userManager;
     private final FraudDetector fraudDetector;
+    private final LedgerJournal journal;
     private final Map<String, Transaction> transactions = new ConcurrentHashMap<>();
-    private final ReentrantLock globalLock = new ReentrantLock();
+    private final UserTransactionIndex userIndex = new UserTransactionIndex();
+    private final Map<String, Transaction> clientReferences = new ConcurrentHashMap<>();
+    private final AccountLockManager accountLocks;
+    private final BalanceMode balanceMode;
     private final AtomicLong transactionCounter = new AtomicLong(0);
+    private final TransactionMetrics metrics = new TransactionMetrics();
+    private final OperationTracer tracer;
+    private final WalletEventBus events;
+    private ScheduledExecutorService checkpointScheduler;
+    private volatile long lastCheckpointSequence;
+    private RecoveryReport recoveryReport;
     public TransactionEngine(UserManager userManager) {
+        this(
+                userManager,
+                LedgerJournal.fromEnvironment(PersistenceManager.getJournalDirectory()),
+                AccountLockManager.fromEnvironment(),
+                BalanceMode.parse(System.getenv("WALLET_BALANCE_MODE"))
+        );
+    }
+    public TransactionEngine(
+            UserManager userManager,
+            LedgerJournal journal,
+            AccountLockManager accountLocks
+    ) {
+        this(userManager, journal, accountLocks, BalanceMode.LOCKED);
+    }
+    public TransactionEngine(
+            UserManager userManager,
+            LedgerJournal journal,
+            AccountLockManager accountLocks,
+            BalanceMode balanceMode
+    ) {
         this.userManager = userManager;
         this.fraudDetector = new FraudDetector();
+        this.tracer = OperationTracer.fromEnvironment();
+        this.events = WalletEventBus.fromEnvironment();
+        this.journal = journal;
+        this.accountLocks = accountLocks;
+        this.balanceMode = balanceMode;
         loadTransactions();
     }
     private String generateTransactionId() {
         return "TXN_" + System.currentTimeMillis() + "_" +
                 transactionCounter.incrementAndGet();
     }
-    public TransactionResult addMoneyFromBank(String userId, double amount) {
-        if (amount <= 0) {
+    public TransactionResult addMoneyFromBank(String userId, long amountCents) {
+        OperationTrace trace = tracer.begin(
+                Transaction.TransactionType.ADD_MONEY,
+                userId,
+                null,
+                amountCents
+        );
+        TransactionResult result = addMoneyFromBank(userId, amountCents, trace);
+        tracer.finish(trace, result);
+        return result;
+    }
+    private TransactionResult addMoneyFromBank(
+            String userId,
+            long amountCents,
+            OperationTrace trace
+    ) {
+        if (amountCents <= 0) {
             return TransactionResult.failure("Invalid amount");
         }
         User user = userManager.getUser(userId);
         if (user == null) {
             return TransactionResult.failure("User not found");
         }
+        trace.mark(OperationTrace.Phase.VALIDATE);
         FraudCheckResult fraud =
-                fraudDetector.checkTransaction(
+                checkFraud(
                         userId,
-                        amount,
+                        amountCents,
                         Transaction.TransactionType.ADD_MONEY
                 );
+        trace.mark(OperationTrace.Phase.FRAUD_CHECK);
         if (!fraud.isAllowed()) {
             return TransactionResult.failure(fraud.getReason());
         }
@@ -43,47 +99,79 @@ public class TransactionEngine {
                 user.getUsername(),
                 null,
                 null,
-                amount
+                amountCents
         );
-        globalLock.lock();
+        trace.mark(OperationTrace.Phase.PREPARE);
+        long sequence = 0;
+        lockAccount(userId);
+        trace.mark(OperationTrace.Phase.LOCK_WAIT);
         try {
-            if (user.getBankBalance() < amount) {
+            if (user.getBankBalanceCents() < amountCents) {
                 return TransactionResult.failure("Insufficient bank balance");
             }
-            user.debitBank(amount);
-            user.creditWallet(amount);
+            try {
+                user.moveBankToWallet(amountCents);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                txn.markFailed();
+                store(txn);
+                sequence = persist(txn);
+                trace.mark(OperationTrace.Phase.PERSIST);
+                return TransactionResult.failure(e.getMessage());
+            }
             txn.markSuccess();
-            transactions.put(txnId, txn);
-            persistAll();
-            fraudDetector.recordTransaction(
-                    userId,
-                    amount,
-                    Transaction.TransactionType.ADD_MONEY
-            );
-            return TransactionResult.success(txnId, user.getWalletBalance());
-        } catch (Exception e) {
-            txn.markFailed();
-            transactions.put(txnId, txn);
-            persistTransactions();
-            return TransactionResult.failure(e.getMessage());
+            store(txn);
+            trace.mark(OperationTrace.Phase.APPLY);
+            try {
+                sequence = persist(txn, user);
+            } catch (RuntimeException e) {
+                compensate(userId, () -> user.moveWalletToBank(amountCents));
+                txn.markFailed();
+                store(txn);
+                trace.mark(OperationTrace.Phase.PERSIST);
+                throw e;
+            }
+            trace.mark(OperationTrace.Phase.PERSIST);
+            recordFraud(userId, amountCents, Transaction.TransactionType.ADD_MONEY);
+            trace.mark(OperationTrace.Phase.FRAUD_RECORD);
+            return TransactionResult.success(txnId, user.getWalletBalanceCents());
         } finally {
-            globalLock.unlock();
+            unlockAccount(userId);
+            awaitDurable(sequence);
+            publishIfCommitted(txn, user);
+            trace.mark(OperationTrace.Phase.RELEASE);
         }
     }
-    public TransactionResult withdrawToBank(String userId, double amount) {
-        if (amount <= 0) {
+    public TransactionResult withdrawToBank(String userId, long amountCents) {
+        OperationTrace trace = tracer.begin(
+                Transaction.TransactionType.WITHDRAW,
+                userId,
+                null,
+                amountCents
+        );
+        TransactionResult result = withdrawToBank(userId, amountCents, trace);
+        tracer.finish(trace, result);
+        return result;
+    }
+    private TransactionResult withdrawToBank(
+            String userId,
+            long amountCents,
+            OperationTrace trace
+    ) {
+        if (amountCents <= 0) {
             return TransactionResult.failure("Invalid amount");
         }
         User user = userManager.getUser(userId);
         if (user == null) {
             return TransactionResult.failure("User not found");
         }
+        trace.mark(OperationTrace.Phase.VALIDATE);
         FraudCheckResult fraud =
-                fraudDetector.checkTransaction(
+                checkFraud(
                         userId,
-                        amount,
+                        amountCents,
                         Transaction.TransactionType.WITHDRAW
                 );
+        trace.mark(OperationTrace.Phase.FRAUD_CHECK);
         if (!fraud.isAllowed()) {
             return TransactionResult.failure(fraud.getReason());
         }
@@ -95,35 +183,75 @@ public class TransactionEngine {
                 user.getUsername(),
                 null,
                 null,
-                amount
+                amountCents
         );
-        globalLock.lock();
+        trace.mark(OperationTrace.Phase.PREPARE);
+        long sequence = 0;
+        lockAccount(userId);
+        trace.mark(OperationTrace.Phase.LOCK_WAIT);
         try {
-            if (user.getWalletBalance() < amount) {
+            if (user.getWalletBalanceCents() < amountCents) {
                 return TransactionResult.failure("Insufficient wallet balance");
             }
-            user.debitWallet(amount);
-            user.creditBank(amount);
+            try {
+                user.moveWalletToBank(amountCents);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                txn.markFailed();
+                store(txn);
+                sequence = persist(txn);
+                trace.mark(OperationTrace.Phase.PERSIST);
+                return TransactionResult.failure(e.getMessage());
+            }
             txn.markSuccess();
-            transactions.put(txnId, txn);
-            persistAll();
-            fraudDetector.recordTransaction(
-                    userId,
-                    amount,
-                    Transaction.TransactionType.WITHDRAW
-            );
-            return TransactionResult.success(txnId, user.getWalletBalance());
-        } catch (Exception e) {
-            txn.markFailed();
-            transactions.put(txnId, txn);
-            persistTransactions();
-            return TransactionResult.failure(e.getMessage());
+            store(txn);
+            trace.mark(OperationTrace.Phase.APPLY);
+            try {
+                sequence = persist(txn, user);
+            } catch (RuntimeException e) {
+                compensate(userId, () -> user.moveBankToWallet(amountCents));
+                txn.markFailed();
+                store(txn);
+                trace.mark(OperationTrace.Phase.PERSIST);
+                throw e;
+            }
+            trace.mark(OperationTrace.Phase.PERSIST);
+            recordFraud(userId, amountCents, Transaction.TransactionType.WITHDRAW);
+            trace.mark(OperationTrace.Phase.FRAUD_RECORD);
+            return TransactionResult.success(txnId, user.getWalletBalanceCents());
         } finally {
-            globalLock.unlock();
+            unlockAccount(userId);
+            awaitDurable(sequence);
+            publishIfCommitted(txn, user);
+            trace.mark(OperationTrace.Phase.RELEASE);
         }
     }
-    public TransactionResult transfer(String senderId, String receiverId, double amount) {
-        if (amount <= 0) {
+    public TransactionResult transfer(String senderId, String receiverId, long amountCents) {
+        return transfer(senderId, receiverId, amountCents, null);
+    }
+    public TransactionResult transfer(
+            String senderId,
+            String receiverId,
+            long amountCents,
+            String clientReference
+    ) {
+        OperationTrace trace = tracer.begin(
+                Transaction.TransactionType.TRANSFER,
+                senderId,
+                receiverId,
+                amountCents
+        );
+        TransactionResult result = transfer(senderId, receiverId, amountCents, clientReference, trace);
+        tracer.finish(trace, result);
+        return result;
+    }
+    private TransactionResult transfer(
+            String senderId,
+            String receiverId,
+            long amountCents,
+            String clientReference,
+            OperationTrace trace
+    ) {
+        if (amountCents <= 0) {
             return TransactionResult.failure("Invalid amount");
         }
         if (senderId.equals(receiverId)) {
@@ -134,12 +262,17 @@ public class TransactionEngine {
         if (sender == null || receiver == null) {
             return TransactionResult.failure("User not found");
         }
+        if (clientReference != null && clientReferences.containsKey(clientKey(senderId, clientReference))) {
+            return replay(sender, receiverId, amountCents, clientReference);
+        }
+        trace.mark(OperationTrace.Phase.VALIDATE);
         FraudCheckResult fraud =
-                fraudDetector.checkTransaction(
+                checkFraud(
                         senderId,
-                        amount,
+                        amountCents,
                         Transaction.TransactionType.TRANSFER
                 );
+        trace.mark(OperationTrace.Phase.FRAUD_CHECK);
         if (!fraud.isAllowed()) {
             return TransactionResult.failure(fraud.getReason());
         }
@@ -151,58 +284,428 @@ public class TransactionEngine {
                 sender.getUsername(),
                 receiver.getUserId(),
                 receiver.getUsername(),
-                amount
+                amountCents,
+                clientReference
         );
-        globalLock.lock();
+        trace.mark(OperationTrace.Phase.PREPARE);
+        long sequence = 0;
+        lockAccounts(senderId, receiverId);
+        trace.mark(OperationTrace.Phase.LOCK_WAIT);
         try {
-            if (sender.getWalletBalance() < amount) {
+            if (clientReference != null && clientReferences.containsKey(clientKey(senderId, clientReference))) {
+                return replay(sender, receiverId, amountCents, clientReference);
+            }
+            if (sender.getWalletBalanceCents() < amountCents) {
                 return TransactionResult.failure("Insufficient wallet balance");
             }
-            sender.debitWallet(amount);
-            receiver.creditWallet(amount);
+            try {
+                sender.debitWallet(amountCents);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                txn.markFailed();
+                store(txn);
+                sequence = persist(txn);
+                trace.mark(OperationTrace.Phase.PERSIST);
+                return TransactionResult.failure(e.getMessage());
+            }
+            receiver.creditWallet(amountCents);
             txn.markSuccess();
-            transactions.put(txnId, txn);
-            persistAll();
-            fraudDetector.recordTransaction(
-                    senderId,
-                    amount,
-                    Transaction.TransactionType.TRANSFER
+            store(txn);
+            trace.mark(OperationTrace.Phase.APPLY);
+            try {
+                sequence = persist(txn, sender, receiver);
+            } catch (RuntimeException e) {
+                sender.creditWallet(amountCents);
+                compensate(receiverId, () -> receiver.debitWallet(amountCents));
+                txn.markFailed();
+                store(txn);
+                trace.mark(OperationTrace.Phase.PERSIST);
+                throw e;
+            }
+            trace.mark(OperationTrace.Phase.PERSIST);
+            recordFraud(senderId, amountCents, Transaction.TransactionType.TRANSFER);
+            trace.mark(OperationTrace.Phase.FRAUD_RECORD);
+            return TransactionResult.success(txnId, sender.getWalletBalanceCents());
+        } finally {
+            accountLocks.unlock(senderId, receiverId);
+            awaitDurable(sequence);
+            publishIfCommitted(txn, sender, receiver);
+            trace.mark(OperationTrace.Phase.RELEASE);
+        }
+    }
+    public BatchTransferResult transferBatch(
+            String senderId,
+            List<TransferLeg> legs,
+            BatchMode mode
+    ) {
+        if (legs == null || legs.isEmpty()) {
+            return BatchTransferResult.rejected("No transfers in batch");
+        }
+        if (legs.size() > MAX_BATCH_TRANSFERS) {
+            return BatchTransferResult.rejected("Batch exceeds " + MAX_BATCH_TRANSFERS + " transfers");
+        }
+        User sender = userManager.getUser(senderId);
+        if (sender == null) {
+            return BatchTransferResult.rejected("User not found");
+        }
+        BatchTransferResult.LegResult[] results = new BatchTransferResult.LegResult[legs.size()];
+        Transaction[] prepared = new Transaction[legs.size()];
+        Map<String, User> receivers = new HashMap<>();
+        long requestedCents = 0;
+        for (int i = 0; i < legs.size(); i++) {
+            TransferLeg leg = legs.get(i);
+            User receiver = leg.getReceiverId() == null ? null : userManager.getUser(leg.getReceiverId());
+            String error = null;
+            if (leg.getAmountCents() <= 0) {
+                error = "Invalid amount";
+            } else if (leg.getAmountCents() > User.MAX_TRANSACTION_AMOUNT_CENTS) {
+                error = "Amount exceeds allowed limit";
+            } else if (senderId.equals(leg.getReceiverId())) {
+                error = "Cannot transfer to yourself";
+            } else if (receiver == null) {
+                error = "User not found";
+            }
+            if (error != null) {
+                if (mode == BatchMode.ALL_OR_NOTHING) {
+                    return BatchTransferResult.rejected("Transfer " + (i + 1) + ": " + error);
+                }
+                results[i] = BatchTransferResult.LegResult.failed(leg, error);
+                continue;
+            }
+            receivers.put(receiver.getUserId(), receiver);
+            prepared[i] = new Transaction(
+                    generateTransactionId(),
+                    Transaction.TransactionType.TRANSFER,
+                    sender.getUserId(),
+                    sender.getUsername(),
+                    receiver.getUserId(),
+                    receiver.getUsername(),
+                    leg.getAmountCents()
+            );
+            try {
+                requestedCents = Math.addExact(requestedCents, leg.getAmountCents());
+            } catch (ArithmeticException e) {
+                return BatchTransferResult.rejected("Batch total out of range");
+            }
+        }
+        if (receivers.isEmpty()) {
+            return BatchTransferResult.completed(Arrays.asList(results), 0, sender.getWalletBalanceCents());
+        }
+        FraudCheckResult fraud =
+                checkFraud(
+                        senderId,
+                        requestedCents,
+                        Transaction.TransactionType.TRANSFER
+                );
+        if (!fraud.isAllowed()) {
+            return BatchTransferResult.rejected(fraud.getReason());
+        }
+        Set<String> lockIds = new HashSet<>(receivers.keySet());
+        lockIds.add(senderId);
+        List<Transaction> applied = new ArrayList<>();
+        Set<User> touched = new LinkedHashSet<>();
+        touched.add(sender);
+        long transferredCents = 0;
+        long sequence = 0;
+        lockAccounts(lockIds);
+        try {
+            if (mode == BatchMode.ALL_OR_NOTHING && sender.getWalletBalanceCents() < requestedCents) {
+                return BatchTransferResult.rejected("Insufficient wallet balance");
+            }
+            for (int i = 0; i < prepared.length; i++) {
+                Transaction txn = prepared[i];
+                if (txn == null) continue;
+                try {
+                    sender.debitWallet(txn.getAmountCents());
+                } catch (IllegalStateException e) {
+                    if (mode == BatchMode.ALL_OR_NOTHING) {
+                        for (Transaction debited : applied) {
+                            sender.creditWallet(debited.getAmountCents());
+                        }
+                        applied.clear();
+                        return BatchTransferResult.rejected("Insufficient wallet balance");
+                    }
+                    results[i] = BatchTransferResult.LegResult.failed(legs.get(i), "Insufficient wallet balance");
+                    continue;
+                }
+                applied.add(txn);
+                results[i] = BatchTransferResult.LegResult.applied(txn);
+            }
+            for (Transaction txn : applied) {
+                User receiver = receivers.get(txn.getReceiverId());
+                receiver.creditWallet(txn.getAmountCents());
+                txn.markSuccess();
+                store(txn);
+                touched.add(receiver);
+                transferredCents += txn.getAmountCents();
+            }
+            if (!applied.isEmpty()) {
+                try {
+                    sequence = persist(applied, touched.toArray(new User[0]));
+                } catch (RuntimeException e) {
+                    for (Transaction txn : applied) {
+                        User receiver = receivers.get(txn.getReceiverId());
+                        sender.creditWallet(txn.getAmountCents());
+                        compensate(receiver.getUserId(), () -> receiver.debitWallet(txn.getAmountCents()));
+                        txn.markFailed();
+                        store(txn);
+                    }
+                    applied.clear();
+                    throw e;
+                }
+                recordFraud(senderId, transferredCents, Transaction.TransactionType.TRANSFER);
+            }
+            return BatchTransferResult.completed(
+                    Arrays.asList(results),
+                    transferredCents,
+                    sender.getWalletBalanceCents()
             );
-            return TransactionResult.success(txnId, sender.getWalletBalance());
-        } catch (Exception e) {
-            txn.markFailed();
-            transactions.put(txnId, txn);
-            persistTransactions();
-            return TransactionResult.failure(e.getMessage());
         } finally {
-            globalLock.unlock();
+            accountLocks.unlock(lockIds);
+            awaitDurable(sequence);
+            publishIfCommitted(applied, touched);
         }
     }
+    public Transaction findByClientReference(String userId, String clientReference) {
+        return clientReferences.get(clientKey(userId, clientReference));
+    }
     public List<Transaction> getUserTransactions(String userId) {
-        List<Transaction> list = new ArrayList<>();
-        for (Transaction txn : transactions.values()) {
-            if (userId.equals(txn.getSenderId()) ||
-                userId.equals(txn.getReceiverId())) {
-                list.add(txn);
+        return userIndex.forUser(userId);
+    }
+    public TransactionPage getUserTransactions(String userId, TransactionQuery query) {
+        return userIndex.page(userId, query);
+    }
+    public void startCheckpointing(long intervalMs) {
+        if (checkpointScheduler != null) return;
+        checkpointScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ledger-checkpoint");
+            t.setDaemon(true);
+            return t;
+        });
+        checkpointScheduler.scheduleWithFixedDelay(() -> {
+            try {
+                checkpoint();
+            } catch (Exception e) {
+                System.err.println("❌ Checkpoint failed");
+                e.printStackTrace();
+            }
+        }, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+    public synchronized LedgerSnapshot checkpoint() {
+        LedgerSnapshot cut;
+        accountLocks.lockAll();
+        try {
+            if (journal.getLastSequence() == lastCheckpointSequence) {
+                return null;
             }
+            long sequence = journal.rollover();
+            cut = LedgerSnapshot.captureBalances(sequence, userManager.getAllUsers());
+        } finally {
+            accountLocks.unlockAll();
         }
-        list.sort((a, b) ->
-                Long.compare(b.getCreatedAt(), a.getCreatedAt())
-        );
-        return list;
+        LedgerSnapshot snapshot = cut.withTransactions(transactions.values());
+        PersistenceManager.saveSnapshot(snapshot);
+        journal.truncateThrough(snapshot.getSequence());
+        PersistenceManager.pruneSnapshots(SNAPSHOTS_TO_KEEP);
+        lastCheckpointSequence = snapshot.getSequence();
+        return snapshot;
+    }
+    public FraudDetector getFraudDetector() {
+        return fraudDetector;
+    }
+    public OperationTracer getTracer() {
+        return tracer;
+    }
+    public WalletEventBus getEvents() {
+        return events;
+    }
+    public TransactionMetrics getMetrics() {
+        return metrics;
+    }
+    public BalanceMode getBalanceMode() {
+        return balanceMode;
+    }
+    public RecoveryReport getRecoveryReport() {
+        return recoveryReport;
+    }
+    public void shutdown() {
+        if (checkpointScheduler != null) {
+            checkpointScheduler.shutdownNow();
+        }
+        try {
+            checkpoint();
+        } catch (Exception e) {
+            System.err.println("❌ Final checkpoint failed");
+            e.printStackTrace();
+        }
+        journal.close();
+        fraudDetector.shutdown();
+    }
+    private void store(Transaction txn) {
+        Transaction previous = transactions.put(txn.getTransactionId(), txn);
+        if (previous != null && previous != txn) {
+            userIndex.remove(previous);
+        }
+        userIndex.add(txn);
+        if (txn.getClientReference() != null) {
+            String key = clientKey(txn.getSenderId(), txn.getClientReference());
+            if (txn.getStatus() == Transaction.TransactionStatus.SUCCESS) {
+                clientReferences.put(key, txn);
+            } else {
+                clientReferences.remove(key, txn);
+            }
+        }
+    }
+    private TransactionResult replay(
+            User sender,
+            String receiverId,
+            long amountCents,
+            String clientReference
+    ) {
+        Transaction previous = clientReferences.get(clientKey(sender.getUserId(), clientReference));
+        if (!receiverId.equals(previous.getReceiverId()) || amountCents != previous.getAmountCents()) {
+            return TransactionResult.failure("Client transaction ID already used for a different transaction");
+        }
+        return TransactionResult.replayed(previous.getTransactionId(), sender.getWalletBalanceCents());
+    }
+    private static String clientKey(String userId, String clientReference) {
+        return userId + ':' + clientReference;
+    }
+    private FraudCheckResult checkFraud(
+            String userId,
+            long amountCents,
+            Transaction.TransactionType type
+    ) {
+        long start = System.nanoTime();
+        try {
+            return fraudDetector.checkTransaction(userId, amountCents, type);
+        } finally {
+            metrics.getFraudCheck().record(System.nanoTime() - start);
+        }
+    }
+    private void recordFraud(String userId, long amountCents, Transaction.TransactionType type) {
+        try {
+            fraudDetector.recordTransaction(userId, amountCents, type);
+        } catch (RuntimeException e) {
+            System.err.println("❌ Failed to record fraud sample for committed " + type + " by " + userId);
+            e.printStackTrace();
+        }
+    }
+    private void compensate(String userId, Runnable reversal) {
+        try {
+            reversal.run();
+        } catch (IllegalStateException e) {
+            System.err.println("❌ Could not reverse balance change for " + userId + " after a failed journal write");
+        }
+    }
+    private void lockAccount(String userId) {
+        if (balanceMode == BalanceMode.LOCK_FREE) return;
+        long start = System.nanoTime();
+        accountLocks.lock(userId);
+        metrics.getLockWait().record(System.nanoTime() - start);
+    }
+    private void unlockAccount(String userId) {
+        if (balanceMode == BalanceMode.LOCK_FREE) return;
+        accountLocks.unlock(userId);
+    }
+    private void lockAccounts(String firstUserId, String secondUserId) {
+        long start = System.nanoTime();
+        accountLocks.lock(firstUserId, secondUserId);
+        metrics.getLockWait().record(System.nanoTime() - start);
+    }
+    private void lockAccounts(Collection<String> userIds) {
+        long start = System.nanoTime();
+        accountLocks.lock(userIds);
+        metrics.getLockWait().record(System.nanoTime() - start);
+    }
+    private long persist(Transaction txn, User... touched) {
+        return persist(List.of(txn), touched);
+    }
+    private long persist(List<Transaction> txns, User... touched) {
+        long start = System.nanoTime();
+        try {
+            return journal.append(txns, touched);
+        } finally {
+            metrics.getPersist().record(System.nanoTime() - start);
+        }
+    }
+    private void awaitDurable(long sequence) {
+        if (sequence <= 0) return;
+        long start = System.nanoTime();
+        journal.awaitDurable(sequence);
+        metrics.getDurableWait().record(System.nanoTime() - start);
     }
-    private void persistTransactions() {
-        PersistenceManager.saveTransactions(transactions);
+    private void publishIfCommitted(Transaction txn, User... users) {
+        publishIfCommitted(List.of(txn), Arrays.asList(users));
     }
-    private void persistAll() {
-        userManager.persistUsers();
-        persistTransactions();
+    private void publishIfCommitted(List<Transaction> txns, Collection<User> users) {
+        if (txns.isEmpty() || txns.get(0).getStatus() != Transaction.TransactionStatus.SUCCESS) return;
+        for (User user : users) {
+            events.publish(user, txns);
+        }
     }
     private void loadTransactions() {
-        Map<String, Transaction> loaded =
-                PersistenceManager.loadTransactions();
-        if (loaded != null) {
-            transactions.putAll(loaded);
+        long start = System.nanoTime();
+        LedgerSnapshot snapshot = PersistenceManager.loadLatestSnapshot();
+        long snapshotSequence = 0;
+        int snapshotTransactions = 0;
+        if (snapshot != null) {
+            for (Transaction txn : snapshot.getTransactions()) {
+                store(txn);
+            }
+            applyBalances(snapshot.getBalances());
+            snapshotSequence = snapshot.getSequence();
+            snapshotTransactions = snapshot.getTransactions().size();
+        } else {
+            Map<String, Transaction> loaded =
+                    PersistenceManager.loadTransactions();
+            if (loaded != null) {
+                loaded.values().forEach(this::store);
+            }
+        }
+        AtomicLong replayed = new AtomicLong();
+        long lastSequence = journal.replay(snapshotSequence, record -> {
+            applyJournalRecord(record);
+            replayed.incrementAndGet();
+        });
+        lastCheckpointSequence = snapshotSequence;
+        recoveryReport = new RecoveryReport(
+                snapshotSequence,
+                snapshotTransactions,
+                replayed.get(),
+                lastSequence,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+        );
+    }
+    private void applyJournalRecord(JournalRecord record) {
+        record.getTransactions().forEach(this::store);
+        applyBalances(record.getBalances());
+    }
+    private void applyBalances(List<JournalRecord.BalanceEntry> balances) {
+        for (JournalRecord.BalanceEntry entry : balances) {
+            User user = userManager.getUser(entry.getUserId());
+            if (user != null) {
+                user.restoreBalances(entry.getWalletBalanceCents(), entry.getBankBalanceCents());
+            }
+        }
+    }
+    public enum BalanceMode {
+        LOCKED,
+        LOCK_FREE;
+        public static BalanceMode parse(String value) {
+            if (value == null || value.isBlank()) {
+                return LOCKED;
+            }
+            return BalanceMode.valueOf(value.trim().toUpperCase());
+        }
+    }
+    public enum BatchMode {
+        ALL_OR_NOTHING,
+        BEST_EFFORT;
+        public static BatchMode parse(String value) {
+            if (value == null || value.isBlank()) {
+                return ALL_OR_NOTHING;
+            }
+            return BatchMode.valueOf(value.trim().toUpperCase());
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package core;
+public class TransactionMetrics {
+    private final LatencyHistogram lockWait = new LatencyHistogram();
+    private final LatencyHistogram persist = new LatencyHistogram();
+    private final LatencyHistogram durableWait = new LatencyHistogram();
+    private final LatencyHistogram fraudCheck = new LatencyHistogram();
+    public LatencyHistogram getLockWait() {
+        return lockWait;
+    }
+    public LatencyHistogram getPersist() {
+        return persist;
+    }
+    public LatencyHistogram getDurableWait() {
+        return durableWait;
+    }
+    public LatencyHistogram getFraudCheck() {
+        return fraudCheck;
+    }
+}
\ No newline at end of file
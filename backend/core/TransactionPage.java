@@ -0,0 +1,13 @@
+package core;
+import java.util.List;
+public class TransactionPage {
+    private final List<Transaction> transactions;
+    private final String nextCursor;
+    TransactionPage(List<Transaction> transactions, String nextCursor) {
+        this.transactions = transactions;
+        this.nextCursor = nextCursor;
+    }
+    public List<Transaction> getTransactions() { return transactions; }
+    public String getNextCursor() { return nextCursor; }
+    public boolean hasMore() { return nextCursor != null; }
+}
\ No newline at end of file
@@ -0,0 +1,82 @@
+package core;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+public class TransactionQuery {
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+    private final String cursor;
+    private final int limit;
+    private final Transaction.TransactionType type;
+    private final Transaction.TransactionStatus status;
+    private final Direction direction;
+    private final Long fromMs;
+    private final Long toMs;
+    public TransactionQuery(
+            String cursor,
+            Integer limit,
+            Transaction.TransactionType type,
+            Transaction.TransactionStatus status,
+            Direction direction,
+            Long fromMs,
+            Long toMs
+    ) {
+        if (limit != null && limit <= 0) {
+            throw new IllegalArgumentException("Invalid limit");
+        }
+        this.cursor = cursor;
+        this.limit = limit == null ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+        this.type = type;
+        this.status = status;
+        this.direction = direction;
+        this.fromMs = fromMs;
+        this.toMs = toMs;
+    }
+    public boolean matches(String userId, Transaction txn) {
+        if (toMs != null && txn.getCreatedAt() > toMs) return false;
+        if (type != null && txn.getType() != type) return false;
+        if (status != null && txn.getStatus() != status) return false;
+        if (direction != null) {
+            boolean sent = userId.equals(txn.getSenderId());
+            if ((direction == Direction.SENT) != sent) return false;
+        }
+        return true;
+    }
+    Transaction startKey() {
+        if (cursor != null) {
+            return decodeCursor(cursor);
+        }
+        if (toMs != null) {
+            return Transaction.key(toMs, String.valueOf(Character.MAX_VALUE));
+        }
+        return null;
+    }
+    boolean startInclusive() {
+        return cursor == null;
+    }
+    static String encodeCursor(Transaction txn) {
+        String raw = txn.getCreatedAt() + ":" + txn.getTransactionId();
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    private static Transaction decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int split = raw.indexOf(':');
+            return Transaction.key(Long.parseLong(raw.substring(0, split)), raw.substring(split + 1));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+    public String getCursor() { return cursor; }
+    public int getLimit() { return limit; }
+    public Transaction.TransactionType getType() { return type; }
+    public Transaction.TransactionStatus getStatus() { return status; }
+    public Direction getDirection() { return direction; }
+    public Long getFromMs() { return fromMs; }
+    public Long getToMs() { return toMs; }
+    public enum Direction {
+        SENT,
+        RECEIVED
+    }
+}
\ No newline at end of file
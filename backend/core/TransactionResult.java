@@ -3,24 +3,37 @@ public class TransactionResult {
     private final boolean success;
     private final String message;
     private final String transactionId;
-    private final double newBalance;
+    private final long newBalanceCents;
+    private final boolean replayed;
     private TransactionResult(
             boolean success,
             String message,
             String transactionId,
-            double newBalance
+            long newBalanceCents,
+            boolean replayed
     ) {
         this.success = success;
         this.message = message;
         this.transactionId = transactionId;
-        this.newBalance = newBalance;
+        this.newBalanceCents = newBalanceCents;
+        this.replayed = replayed;
     }
-    public static TransactionResult success(String transactionId, double newBalance) {
+    public static TransactionResult success(String transactionId, long newBalanceCents) {
         return new TransactionResult(
                 true,
                 "Transaction successful",
                 transactionId,
-                round(newBalance)
+                newBalanceCents,
+                false
+        );
+    }
+    public static TransactionResult replayed(String transactionId, long newBalanceCents) {
+        return new TransactionResult(
+                true,
+                "Transaction already processed",
+                transactionId,
+                newBalanceCents,
+                true
         );
     }
     public static TransactionResult failure(String message) {
@@ -28,7 +41,8 @@ public class TransactionResult {
                 false,
                 message,
                 null,
-                -1
+                -1,
+                false
         );
     }
     public boolean isSuccess() {
@@ -40,11 +54,11 @@ public class TransactionResult {
     public String getTransactionId() {
         return transactionId;
     }
-    public double getNewBalance() {
-        return newBalance;
+    public long getNewBalanceCents() {
+        return newBalanceCents;
     }
-    private static double round(double value) {
-        return Math.round(value * 100.0) / 100.0;
+    public boolean isReplayed() {
+        return replayed;
     }
     @Override
     public String toString() {
@@ -52,7 +66,7 @@ public class TransactionResult {
                 "success=" + success +
                 ", message='" + message + '\'' +
                 ", transactionId='" + transactionId + '\'' +
-                ", newBalance=" + newBalance +
+                ", newBalance=" + Money.format(newBalanceCents) +
                 '}';
     }
 }
\ No newline at end of file
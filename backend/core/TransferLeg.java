@@ -0,0 +1,11 @@
+package core;
+public class TransferLeg {
+    private final String receiverId;
+    private final long amountCents;
+    public TransferLeg(String receiverId, long amountCents) {
+        this.receiverId = receiverId;
+        this.amountCents = amountCents;
+    }
+    public String getReceiverId() { return receiverId; }
+    public long getAmountCents() { return amountCents; }
+}
\ No newline at end of file
@@ -1,66 +1,135 @@
 package core;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicReference;
 public class User implements Serializable {
     private static final long serialVersionUID = 1L;
-    private static final double MAX_TRANSACTION_AMOUNT = 1_000_000.00;
-    private final String userId;
-    private final String username;
-    private final String pinHash;
-    private final long createdAt;
-    private double walletBalance;
-    private double bankBalance;
+    public static final long MAX_TRANSACTION_AMOUNT_CENTS = 100_000_000L;
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("userId", String.class),
+            new ObjectStreamField("username", String.class),
+            new ObjectStreamField("pinHash", String.class),
+            new ObjectStreamField("createdAt", long.class),
+            new ObjectStreamField("walletBalanceCents", long.class),
+            new ObjectStreamField("bankBalanceCents", long.class),
+            new ObjectStreamField("biometricEnabled", boolean.class)
+    };
+    private String userId;
+    private String username;
+    private String pinHash;
+    private long createdAt;
+    private transient AtomicReference<Balances> balances;
     private boolean biometricEnabled;
-    public User(String userId, String username, String pinHash, double initialBankBalance) {
+    public User(String userId, String username, String pinHash, long initialBankBalanceCents) {
         this.userId = userId;
         this.username = username;
         this.pinHash = pinHash;
-        this.walletBalance = 0.0;
-        this.bankBalance = round(initialBankBalance);
+        this.balances = new AtomicReference<>(new Balances(0, initialBankBalanceCents, 0));
         this.createdAt = System.currentTimeMillis();
         this.biometricEnabled = false;
     }
-    public synchronized void creditWallet(double amount) {
-        validateAmount(amount);
-        walletBalance = round(walletBalance + amount);
+    public void creditWallet(long amountCents) {
+        validateAmount(amountCents);
+        apply(amountCents, 0, null);
     }
-    public synchronized void debitWallet(double amount) {
-        validateAmount(amount);
-        if (walletBalance < amount) {
-            throw new IllegalStateException("Insufficient wallet balance");
-        }
-        walletBalance = round(walletBalance - amount);
+    public void debitWallet(long amountCents) {
+        validateAmount(amountCents);
+        apply(-amountCents, 0, "Insufficient wallet balance");
+    }
+    public void creditBank(long amountCents) {
+        validateAmount(amountCents);
+        apply(0, amountCents, null);
+    }
+    public void debitBank(long amountCents) {
+        validateAmount(amountCents);
+        apply(0, -amountCents, "Insufficient bank balance");
     }
-    public synchronized void creditBank(double amount) {
-        validateAmount(amount);
-        bankBalance = round(bankBalance + amount);
+    public void moveBankToWallet(long amountCents) {
+        validateAmount(amountCents);
+        apply(amountCents, -amountCents, "Insufficient bank balance");
+    }
+    public void moveWalletToBank(long amountCents) {
+        validateAmount(amountCents);
+        apply(-amountCents, amountCents, "Insufficient wallet balance");
+    }
+    void restoreBalances(long walletBalanceCents, long bankBalanceCents) {
+        while (true) {
+            Balances current = balances.get();
+            Balances restored = new Balances(walletBalanceCents, bankBalanceCents, current.version + 1);
+            if (balances.compareAndSet(current, restored)) {
+                return;
+            }
+        }
     }
-    public synchronized void debitBank(double amount) {
-        validateAmount(amount);
-        if (bankBalance < amount) {
-            throw new IllegalStateException("Insufficient bank balance");
+    private void apply(long walletDeltaCents, long bankDeltaCents, String insufficientMessage) {
+        while (true) {
+            Balances current = balances.get();
+            long wallet = current.walletBalanceCents + walletDeltaCents;
+            long bank = current.bankBalanceCents + bankDeltaCents;
+            if (wallet < 0 || bank < 0) {
+                throw new IllegalStateException(insufficientMessage);
+            }
+            if (balances.compareAndSet(current, new Balances(wallet, bank, current.version + 1))) {
+                return;
+            }
         }
-        bankBalance = round(bankBalance - amount);
     }
-    private void validateAmount(double amount) {
-        if (amount <= 0) {
+    private void validateAmount(long amountCents) {
+        if (amountCents <= 0) {
             throw new IllegalArgumentException("Amount must be positive");
         }
-        if (amount > MAX_TRANSACTION_AMOUNT) {
+        if (amountCents > MAX_TRANSACTION_AMOUNT_CENTS) {
             throw new IllegalArgumentException("Amount exceeds allowed limit");
         }
     }
-    private double round(double value) {
-        return Math.round(value * 100.0) / 100.0;
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        userId = (String) fields.get("userId", null);
+        username = (String) fields.get("username", null);
+        pinHash = (String) fields.get("pinHash", null);
+        createdAt = fields.get("createdAt", 0L);
+        biometricEnabled = fields.get("biometricEnabled", false);
+        if (fields.defaulted("walletBalanceCents")) {
+            balances = new AtomicReference<>(new Balances(
+                    Money.toCents(fields.get("walletBalance", 0.0)),
+                    Money.toCents(fields.get("bankBalance", 0.0)),
+                    0
+            ));
+        } else {
+            balances = new AtomicReference<>(new Balances(
+                    fields.get("walletBalanceCents", 0L),
+                    fields.get("bankBalanceCents", 0L),
+                    0
+            ));
+        }
+    }
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        Balances current = balances.get();
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("userId", userId);
+        fields.put("username", username);
+        fields.put("pinHash", pinHash);
+        fields.put("createdAt", createdAt);
+        fields.put("walletBalanceCents", current.walletBalanceCents);
+        fields.put("bankBalanceCents", current.bankBalanceCents);
+        fields.put("biometricEnabled", biometricEnabled);
+        out.writeFields();
     }
     public String getUserId() { return userId; }
     public String getUsername() { return username; }
     public String getPinHash() { return pinHash; }
     public long getCreatedAt() { return createdAt; }
-    public synchronized double getWalletBalance() {
-        return walletBalance;
+    public long getWalletBalanceCents() {
+        return balances.get().walletBalanceCents;
+    }
+    public long getBankBalanceCents() {
+        return balances.get().bankBalanceCents;
     }
-    public synchronized double getBankBalance() {
-        return bankBalance;
+    public Balances getBalances() {
+        return balances.get();
     }
     public boolean isBiometricEnabled() {
         return biometricEnabled;
@@ -70,12 +139,26 @@ public class User implements Serializable {
     }
     @Override
     public String toString() {
+        Balances current = balances.get();
         return "User{" +
                 "userId='" + userId + '\'' +
                 ", username='" + username + '\'' +
-                ", walletBalance=" + walletBalance +
-                ", bankBalance=" + bankBalance +
+                ", walletBalance=" + Money.format(current.walletBalanceCents) +
+                ", bankBalance=" + Money.format(current.bankBalanceCents) +
                 ", createdAt=" + createdAt +
                 '}';
     }
+    public static final class Balances {
+        private final long walletBalanceCents;
+        private final long bankBalanceCents;
+        private final long version;
+        private Balances(long walletBalanceCents, long bankBalanceCents, long version) {
+            this.walletBalanceCents = walletBalanceCents;
+            this.bankBalanceCents = bankBalanceCents;
+            this.version = version;
+        }
+        public long getWalletBalanceCents() { return walletBalanceCents; }
+        public long getBankBalanceCents() { return bankBalanceCents; }
+        public long getVersion() { return version; }
+    }
 }
\ No newline at end of file
@@ -1,4 +1,5 @@
 package core;
+import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
@@ -23,8 +24,8 @@ public class UserManager {
         }
         String userId = generateUserId();
         String pinHash = securityManager.hashPin(pin);
-        double initialBankBalance = 50_000 + (Math.random() * 50_000);
-        User user = new User(userId, username, pinHash, initialBankBalance);
+        long initialBankBalanceCents = Money.toCents(50_000 + (Math.random() * 50_000));
+        User user = new User(userId, username, pinHash, initialBankBalanceCents);
         users.put(userId, user);
         usernameToUserId.put(username, userId);
         persistUsers();
@@ -55,6 +56,9 @@ public class UserManager {
         String userId = usernameToUserId.get(username);
         return userId != null ? users.get(userId) : null;
     }
+    public Collection<User> getAllUsers() {
+        return users.values();
+    }
     public boolean userExists(String username) {
         return usernameToUserId.containsKey(username);
     }
@@ -0,0 +1,79 @@
+package core;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+public class UserTransactionIndex {
+    public static final Comparator<Transaction> NEWEST_FIRST =
+            Comparator.comparingLong(Transaction::getCreatedAt)
+                    .thenComparing(Transaction::getTransactionId)
+                    .reversed();
+    private final Map<String, NavigableSet<Transaction>> byUser = new ConcurrentHashMap<>();
+    public void add(Transaction txn) {
+        if (txn.getSenderId() != null) {
+            entriesFor(txn.getSenderId()).add(txn);
+        }
+        if (txn.getReceiverId() != null && !txn.getReceiverId().equals(txn.getSenderId())) {
+            entriesFor(txn.getReceiverId()).add(txn);
+        }
+    }
+    public void remove(Transaction txn) {
+        removeFrom(txn.getSenderId(), txn);
+        removeFrom(txn.getReceiverId(), txn);
+    }
+    public List<Transaction> forUser(String userId) {
+        NavigableSet<Transaction> entries = byUser.get(userId);
+        if (entries == null) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(entries);
+    }
+    public NavigableSet<Transaction> view(String userId) {
+        NavigableSet<Transaction> entries = byUser.get(userId);
+        return entries == null
+                ? Collections.emptyNavigableSet()
+                : Collections.unmodifiableNavigableSet(entries);
+    }
+    public TransactionPage page(String userId, TransactionQuery query) {
+        NavigableSet<Transaction> entries = view(userId);
+        Transaction start = query.startKey();
+        if (start != null) {
+            entries = entries.tailSet(start, query.startInclusive());
+        }
+        List<Transaction> page = new ArrayList<>(query.getLimit());
+        for (Transaction txn : entries) {
+            if (query.getFromMs() != null && txn.getCreatedAt() < query.getFromMs()) {
+                break;
+            }
+            if (!query.matches(userId, txn)) {
+                continue;
+            }
+            if (page.size() == query.getLimit()) {
+                return new TransactionPage(
+                        page,
+                        TransactionQuery.encodeCursor(page.get(page.size() - 1))
+                );
+            }
+            page.add(txn);
+        }
+        return new TransactionPage(page, null);
+    }
+    public int size(String userId) {
+        NavigableSet<Transaction> entries = byUser.get(userId);
+        return entries == null ? 0 : entries.size();
+    }
+    private NavigableSet<Transaction> entriesFor(String userId) {
+        return byUser.computeIfAbsent(userId, k -> new ConcurrentSkipListSet<>(NEWEST_FIRST));
+    }
+    private void removeFrom(String userId, Transaction txn) {
+        if (userId == null) return;
+        NavigableSet<Transaction> entries = byUser.get(userId);
+        if (entries != null) {
+            entries.remove(txn);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,36 @@
+package core;
+public class WalletEvent {
+    private final long id;
+    private final Type type;
+    private final String userId;
+    private final Transaction transaction;
+    private final User.Balances balances;
+    private WalletEvent(
+            long id,
+            Type type,
+            String userId,
+            Transaction transaction,
+            User.Balances balances
+    ) {
+        this.id = id;
+        this.type = type;
+        this.userId = userId;
+        this.transaction = transaction;
+        this.balances = balances;
+    }
+    public static WalletEvent transaction(long id, String userId, Transaction transaction) {
+        return new WalletEvent(id, Type.TRANSACTION, userId, transaction, null);
+    }
+    public static WalletEvent balance(long id, String userId, User.Balances balances) {
+        return new WalletEvent(id, Type.BALANCE, userId, null, balances);
+    }
+    public long getId() { return id; }
+    public Type getType() { return type; }
+    public String getUserId() { return userId; }
+    public Transaction getTransaction() { return transaction; }
+    public User.Balances getBalances() { return balances; }
+    public enum Type {
+        TRANSACTION,
+        BALANCE
+    }
+}
\ No newline at end of file
@@ -0,0 +1,240 @@
+package core;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+public class WalletEventBus implements Sweepable {
+    private static final int DEFAULT_RETAINED_EVENTS = 64;
+    private static final long DEFAULT_IDLE_RETENTION_MS = 60_000;
+    private final int retainedEvents;
+    private final long idleRetentionMs;
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+    private final AtomicLong lastEventId = new AtomicLong();
+    public WalletEventBus(int retainedEvents, long idleRetentionMs) {
+        this.retainedEvents = Math.max(1, retainedEvents);
+        this.idleRetentionMs = idleRetentionMs;
+    }
+    public static WalletEventBus fromEnvironment() {
+        int retained = DEFAULT_RETAINED_EVENTS;
+        if (System.getenv("WALLET_EVENTS_RETAINED") != null) {
+            retained = Integer.parseInt(System.getenv("WALLET_EVENTS_RETAINED"));
+        }
+        long idleMs = DEFAULT_IDLE_RETENTION_MS;
+        if (System.getenv("WALLET_EVENTS_IDLE_MS") != null) {
+            idleMs = Long.parseLong(System.getenv("WALLET_EVENTS_IDLE_MS"));
+        }
+        return new WalletEventBus(retained, idleMs);
+    }
+    public void publish(User user, List<Transaction> transactions) {
+        Channel channel = channels.get(user.getUserId());
+        if (channel == null) return;
+        channel.publish(user, transactions);
+    }
+    public long subscribe(String userId) {
+        long[] cursor = new long[1];
+        channels.compute(userId, (id, channel) -> {
+            if (channel == null) {
+                channel = new Channel(lastEventId.get());
+            }
+            channel.addListener();
+            cursor[0] = lastEventId.get();
+            return channel;
+        });
+        return cursor[0];
+    }
+    public void unsubscribe(String userId) {
+        channels.computeIfPresent(userId, (id, channel) -> {
+            channel.removeListener(System.currentTimeMillis());
+            return channel;
+        });
+    }
+    public Watch watch(String userId, long afterEventId, Consumer<EventBatch> listener) {
+        Watch watch = new Watch(afterEventId, listener);
+        Channel channel = channels.get(userId);
+        if (channel == null) {
+            watch.complete(new EventBatch(List.of(), true, lastEventId.get()));
+        } else {
+            channel.watch(watch);
+        }
+        return watch;
+    }
+    public long getLastEventId() {
+        return lastEventId.get();
+    }
+    public int getChannelCount() {
+        return channels.size();
+    }
+    @Override
+    public String getSweepName() {
+        return "wallet event channels";
+    }
+    @Override
+    public Iterator<String> sweepKeys() {
+        return channels.keySet().iterator();
+    }
+    @Override
+    public boolean sweep(String userId, long now) {
+        boolean[] evicted = {false};
+        channels.computeIfPresent(userId, (id, channel) -> {
+            evicted[0] = channel.isIdle(now);
+            return evicted[0] ? null : channel;
+        });
+        return evicted[0];
+    }
+    public static class EventBatch {
+        private final List<WalletEvent> events;
+        private final boolean resync;
+        private final long lastEventId;
+        EventBatch(List<WalletEvent> events, boolean resync, long lastEventId) {
+            this.events = events;
+            this.resync = resync;
+            this.lastEventId = lastEventId;
+        }
+        public List<WalletEvent> getEvents() { return events; }
+        public boolean isResync() { return resync; }
+        public long getLastEventId() { return lastEventId; }
+    }
+    public class Watch {
+        private final long afterEventId;
+        private final Consumer<EventBatch> listener;
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private volatile Channel channel;
+        Watch(long afterEventId, Consumer<EventBatch> listener) {
+            this.afterEventId = afterEventId;
+            this.listener = listener;
+        }
+        public boolean expire() {
+            Channel owner = channel;
+            if (owner != null) {
+                owner.cancel(this);
+            }
+            return complete(new EventBatch(List.of(), false, afterEventId));
+        }
+        boolean complete(EventBatch batch) {
+            if (!completed.compareAndSet(false, true)) return false;
+            listener.accept(batch);
+            return true;
+        }
+    }
+    private class Channel {
+        private final ArrayDeque<WalletEvent> recent = new ArrayDeque<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        private final List<Watch> watches = new ArrayList<>();
+        private long coveredAfter;
+        private long lastBalanceVersion = -1;
+        private int listeners;
+        private long idleSince;
+        Channel(long coveredAfter) {
+            this.coveredAfter = coveredAfter;
+        }
+        void addListener() {
+            lock.lock();
+            try {
+                listeners++;
+            } finally {
+                lock.unlock();
+            }
+        }
+        void removeListener(long now) {
+            lock.lock();
+            try {
+                listeners--;
+                idleSince = now;
+            } finally {
+                lock.unlock();
+            }
+        }
+        boolean isIdle(long now) {
+            lock.lock();
+            try {
+                return listeners == 0 && now - idleSince >= idleRetentionMs;
+            } finally {
+                lock.unlock();
+            }
+        }
+        void publish(User user, List<Transaction> transactions) {
+            String userId = user.getUserId();
+            List<Watch> ready;
+            List<EventBatch> batches;
+            lock.lock();
+            try {
+                for (Transaction txn : transactions) {
+                    if (userId.equals(txn.getSenderId()) || userId.equals(txn.getReceiverId())) {
+                        append(WalletEvent.transaction(lastEventId.incrementAndGet(), userId, txn));
+                    }
+                }
+                User.Balances balances = user.getBalances();
+                if (balances.getVersion() > lastBalanceVersion) {
+                    lastBalanceVersion = balances.getVersion();
+                    append(WalletEvent.balance(lastEventId.incrementAndGet(), userId, balances));
+                }
+                ready = new ArrayList<>();
+                batches = new ArrayList<>();
+                Iterator<Watch> pending = watches.iterator();
+                while (pending.hasNext()) {
+                    Watch watch = pending.next();
+                    EventBatch batch = collect(watch.afterEventId);
+                    if (batch != null) {
+                        pending.remove();
+                        ready.add(watch);
+                        batches.add(batch);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            for (int i = 0; i < ready.size(); i++) {
+                ready.get(i).complete(batches.get(i));
+            }
+        }
+        void watch(Watch watch) {
+            EventBatch batch;
+            lock.lock();
+            try {
+                batch = collect(watch.afterEventId);
+                if (batch == null) {
+                    watch.channel = this;
+                    watches.add(watch);
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (batch != null) {
+                watch.complete(batch);
+            }
+        }
+        void cancel(Watch watch) {
+            lock.lock();
+            try {
+                watches.remove(watch);
+            } finally {
+                lock.unlock();
+            }
+        }
+        private EventBatch collect(long afterEventId) {
+            if (afterEventId < coveredAfter) {
+                return new EventBatch(List.of(), true, lastEventId.get());
+            }
+            List<WalletEvent> events = new ArrayList<>();
+            for (WalletEvent event : recent) {
+                if (event.getId() > afterEventId) {
+                    events.add(event);
+                }
+            }
+            if (events.isEmpty()) return null;
+            return new EventBatch(events, false, events.get(events.size() - 1).getId());
+        }
+        private void append(WalletEvent event) {
+            recent.addLast(event);
+            if (recent.size() > retainedEvents) {
+                coveredAfter = recent.removeFirst().getId();
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -1,4 +1,5 @@
 package handlers;
+import core.Money;
 import core.TransactionEngine;
 import core.TransactionResult;
 import core.WalletSecurityManager;
@@ -33,9 +34,9 @@ public class AddMoneyHandler extends BaseHandler {
                 return;
             }
             Map<String, String> body = parseRequestBody(exchange);
-            double amount = Double.parseDouble(body.get("amount"));
+            long amountCents = Money.parse(body.get("amount"));
             TransactionResult result =
-                    transactionEngine.addMoneyFromBank(userId, amount);
+                    transactionEngine.addMoneyFromBank(userId, amountCents);
             if (!result.isSuccess()) {
                 sendJsonResponse(
                         exchange,
@@ -54,11 +55,13 @@ public class AddMoneyHandler extends BaseHandler {
                             + "\"success\":true,"
                             + "\"message\":\"" + result.getMessage() + "\","
                             + "\"transactionId\":\"" + result.getTransactionId() + "\","
-                            + "\"newBalance\":" + result.getNewBalance()
+                            + "\"newBalance\":" + Money.format(result.getNewBalanceCents())
                             + "}"
             );
         } catch (NumberFormatException e) {
             sendError(exchange, 400, "Invalid amount");
+        } catch (JsonStreamReader.JsonReadException e) {
+            sendError(exchange, e.getStatusCode(), e.getMessage());
         } catch (Exception e) {
             e.printStackTrace();
             sendError(exchange, 500, "Internal server error");
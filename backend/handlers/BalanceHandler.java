@@ -1,4 +1,5 @@
 package handlers;
+import core.Money;
 import core.User;
 import core.UserManager;
 import core.WalletSecurityManager;
@@ -36,13 +37,17 @@ public class BalanceHandler extends BaseHandler {
                 sendError(exchange, 404, "User not found");
                 return;
             }
+            User.Balances balances = user.getBalances();
+            if (sendNotModifiedIfMatches(exchange, versionTag(balances.getVersion()))) {
+                return;
+            }
             sendJsonResponse(
                     exchange,
                     200,
                     "{"
                             + "\"success\":true,"
-                            + "\"walletBalance\":" + user.getWalletBalance() + ","
-                            + "\"bankBalance\":" + user.getBankBalance()
+                            + "\"walletBalance\":" + Money.format(balances.getWalletBalanceCents()) + ","
+                            + "\"bankBalance\":" + Money.format(balances.getBankBalanceCents())
                             + "}"
             );
         } catch (Exception e) {
@@ -1,4 +1,5 @@
 package handlers;
+import core.Money;
 import core.User;
 import core.UserManager;
 import core.WalletSecurityManager;
@@ -36,12 +37,16 @@ public class BankBalanceHandler extends BaseHandler {
                 sendError(exchange, 404, "User not found");
                 return;
             }
+            User.Balances balances = user.getBalances();
+            if (sendNotModifiedIfMatches(exchange, versionTag(balances.getVersion()))) {
+                return;
+            }
             sendJsonResponse(
                     exchange,
                     200,
                     "{"
                             + "\"success\":true,"
-                            + "\"bankBalance\":" + user.getBankBalance()
+                            + "\"bankBalance\":" + Money.format(balances.getBankBalanceCents())
                             + "}"
             );
         } catch (Exception e) {
@@ -1,24 +1,64 @@
 package handlers;
+import core.EndpointMetrics;
+import core.RequestExecutor;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.IOException;
+import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 public abstract class BaseHandler implements HttpHandler {
+    protected static final int MAX_REQUEST_BODY_BYTES = 1 << 20;
+    private static final String INSTANCE_TAG = Long.toString(System.currentTimeMillis(), 36);
+    private static final String STARTED_ATTRIBUTE = "wallet.startedAt";
+    private static final String DEFERRED_ATTRIBUTE = "wallet.deferred";
+    private volatile EndpointMetrics metrics;
     @Override
     public final void handle(HttpExchange exchange) throws IOException {
+        exchange.setAttribute(STARTED_ATTRIBUTE, System.nanoTime());
+        try {
+            dispatch(exchange);
+        } finally {
+            if (exchange.getAttribute(DEFERRED_ATTRIBUTE) == null) {
+                complete(exchange);
+            }
+        }
+    }
+    protected void defer(HttpExchange exchange) {
+        exchange.setAttribute(DEFERRED_ATTRIBUTE, Boolean.TRUE);
+    }
+    protected void complete(HttpExchange exchange) {
+        EndpointMetrics endpoint = metrics;
+        if (endpoint != null) {
+            long start = (Long) exchange.getAttribute(STARTED_ATTRIBUTE);
+            endpoint.record(exchange.getResponseCode(), System.nanoTime() - start);
+        }
+    }
+    public void setMetrics(EndpointMetrics metrics) {
+        this.metrics = metrics;
+    }
+    private void dispatch(HttpExchange exchange) throws IOException {
         addCorsHeaders(exchange);
         if ("OPTIONS".equalsIgnoreCase(exchange.getRequestMethod())) {
             exchange.sendResponseHeaders(204, -1);
             return;
         }
+        if (RequestExecutor.isSaturated() || (RequestExecutor.isOverloaded() && isSheddable())) {
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            sendError(exchange, 503, "Server busy");
+            return;
+        }
         try {
             handleRequest(exchange);
         } catch (Exception e) {
             e.printStackTrace();
+            if (exchange.getResponseCode() != -1) {
+                exchange.close();
+                return;
+            }
             String json =
                     "{"
                             + "\"success\":false,"
@@ -36,6 +76,9 @@ public abstract class BaseHandler implements HttpHandler {
         }
     }
     protected abstract void handleRequest(HttpExchange exchange) throws IOException;
+    protected boolean isSheddable() {
+        return true;
+    }
     protected void sendJsonResponse(
             HttpExchange exchange,
             int statusCode,
@@ -51,11 +94,26 @@ public abstract class BaseHandler implements HttpHandler {
             os.write(response);
         }
     }
+    protected JsonStreamWriter startJsonStream(
+            HttpExchange exchange,
+            int statusCode
+    ) throws IOException {
+        exchange.getResponseHeaders().set(
+                "Content-Type",
+                "application/json; charset=UTF-8"
+        );
+        exchange.sendResponseHeaders(statusCode, 0);
+        return new JsonStreamWriter(exchange.getResponseBody());
+    }
     protected void sendError(
             HttpExchange exchange,
             int statusCode,
             String message
     ) throws IOException {
+        if (exchange.getResponseCode() != -1) {
+            exchange.close();
+            return;
+        }
         String json =
                 "{"
                         + "\"success\":false,"
@@ -65,28 +123,84 @@ public abstract class BaseHandler implements HttpHandler {
     }
     protected Map<String, String> parseRequestBody(HttpExchange exchange)
             throws IOException {
-        try (InputStream is = exchange.getRequestBody()) {
-            String body = new String(is.readAllBytes(), StandardCharsets.UTF_8);
-            return parseSimpleJson(body);
+        Map<String, String> map = new HashMap<>();
+        try (InputStream is = exchange.getRequestBody();
+             JsonStreamReader reader = openJsonStream(is)) {
+            readFlatObject(reader, map);
         }
+        return map;
+    }
+    protected JsonStreamReader openJsonStream(InputStream is) {
+        return new JsonStreamReader(is, MAX_REQUEST_BODY_BYTES);
     }
     protected Map<String, String> parseSimpleJson(String json) {
         Map<String, String> map = new HashMap<>();
         if (json == null || json.isBlank()) return map;
-        json = json.trim();
-        if (!json.startsWith("{") || !json.endsWith("}")) return map;
-        json = json.substring(1, json.length() - 1);
-        String[] pairs =
-                json.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)");
-        for (String pair : pairs) {
-            String[] kv = pair.split(":", 2);
-            if (kv.length != 2) continue;
-            String key = stripQuotes(kv[0].trim());
-            String value = stripQuotes(kv[1].trim());
-            map.put(key, value);
+        try {
+            readFlatObject(new JsonStreamReader(json.getBytes(StandardCharsets.UTF_8)), map);
+        } catch (IOException e) {
+            return map;
         }
         return map;
     }
+    private void readFlatObject(JsonStreamReader reader, Map<String, String> map)
+            throws IOException {
+        if (reader.peek() != JsonStreamReader.Token.BEGIN_OBJECT) {
+            if (reader.peek() == JsonStreamReader.Token.END_DOCUMENT) return;
+            throw new JsonStreamReader.JsonReadException(400, "Malformed JSON: Expected an object");
+        }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            switch (reader.peek()) {
+                case NULL:
+                case BEGIN_OBJECT:
+                case BEGIN_ARRAY:
+                    reader.skipValue();
+                    break;
+                default:
+                    map.put(name, reader.nextString());
+            }
+        }
+        reader.endObject();
+    }
+    protected Map<String, String> parseQueryParams(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null || query.isBlank()) return params;
+        for (String pair : query.split("&")) {
+            if (pair.isEmpty()) continue;
+            String[] kv = pair.split("=", 2);
+            String key = URLDecoder.decode(kv[0], StandardCharsets.UTF_8);
+            String value = kv.length == 2 ? URLDecoder.decode(kv[1], StandardCharsets.UTF_8) : "";
+            params.put(key, value);
+        }
+        return params;
+    }
+    protected String versionTag(long version) {
+        return "\"" + INSTANCE_TAG + "-" + version + "\"";
+    }
+    protected boolean sendNotModifiedIfMatches(
+            HttpExchange exchange,
+            String etag
+    ) throws IOException {
+        exchange.getResponseHeaders().set("ETag", etag);
+        exchange.getResponseHeaders().set("Cache-Control", "private, no-cache");
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag) || tag.equals("*")) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return true;
+            }
+        }
+        return false;
+    }
     protected String getAuthToken(HttpExchange exchange) {
         String auth = exchange.getRequestHeaders().getFirst("Authorization");
         if (auth != null && auth.startsWith("Bearer ")) {
@@ -105,14 +219,12 @@ public abstract class BaseHandler implements HttpHandler {
         );
         exchange.getResponseHeaders().set(
                 "Access-Control-Allow-Headers",
-                "Content-Type, Authorization"
+                "Content-Type, Authorization, If-None-Match"
+        );
+        exchange.getResponseHeaders().set(
+                "Access-Control-Expose-Headers",
+                "ETag"
         );
-    }
-    private String stripQuotes(String s) {
-        if (s.startsWith("\"") && s.endsWith("\"")) {
-            return s.substring(1, s.length() - 1);
-        }
-        return s;
     }
     private String escape(String s) {
         return s.replace("\"", "\\\"");
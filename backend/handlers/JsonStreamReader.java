@@ -0,0 +1,380 @@
+package handlers;
+import core.ResourcePool;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+public class JsonStreamReader implements Closeable {
+    private static final int BUFFER_SIZE = 8192;
+    private static final int POOLED_BUFFERS = 64;
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_OBJECT = 2;
+    private static final int DANGLING_NAME = 3;
+    private static final int NONEMPTY_OBJECT = 4;
+    private static final int EMPTY_ARRAY = 5;
+    private static final int NONEMPTY_ARRAY = 6;
+    private static final ResourcePool<byte[]> BUFFERS =
+            new ResourcePool<>(POOLED_BUFFERS, () -> new byte[BUFFER_SIZE]);
+    private final InputStream in;
+    private final long maxBytes;
+    private final byte[] buffer;
+    private final boolean pooled;
+    private boolean closed;
+    private final StringBuilder text = new StringBuilder();
+    private int[] stack = new int[16];
+    private int stackSize = 1;
+    private int pos;
+    private int limit;
+    private long consumed;
+    private Token peeked;
+    public JsonStreamReader(InputStream in, long maxBytes) {
+        this.in = in;
+        this.maxBytes = maxBytes;
+        this.buffer = BUFFERS.acquire();
+        this.pooled = true;
+        stack[0] = EMPTY_DOCUMENT;
+    }
+    public JsonStreamReader(byte[] data) {
+        this.in = InputStream.nullInputStream();
+        this.maxBytes = data.length;
+        this.buffer = data;
+        this.pooled = false;
+        this.limit = data.length;
+        stack[0] = EMPTY_DOCUMENT;
+    }
+    public Token peek() throws IOException {
+        if (peeked != null) {
+            return peeked;
+        }
+        int scope = stack[stackSize - 1];
+        int c;
+        switch (scope) {
+            case EMPTY_ARRAY:
+                stack[stackSize - 1] = NONEMPTY_ARRAY;
+                c = nextNonWhitespace();
+                if (c == ']') return peeked = Token.END_ARRAY;
+                break;
+            case NONEMPTY_ARRAY:
+                c = nextNonWhitespace();
+                if (c == ']') return peeked = Token.END_ARRAY;
+                if (c != ',') throw syntaxError("Expected ',' or ']'");
+                c = nextNonWhitespace();
+                break;
+            case EMPTY_OBJECT:
+            case NONEMPTY_OBJECT:
+                c = nextNonWhitespace();
+                if (c == '}') return peeked = Token.END_OBJECT;
+                if (scope == NONEMPTY_OBJECT) {
+                    if (c != ',') throw syntaxError("Expected ',' or '}'");
+                    c = nextNonWhitespace();
+                }
+                if (c != '"') throw syntaxError("Expected name");
+                stack[stackSize - 1] = DANGLING_NAME;
+                readString();
+                return peeked = Token.NAME;
+            case DANGLING_NAME:
+                stack[stackSize - 1] = NONEMPTY_OBJECT;
+                if (nextNonWhitespace() != ':') throw syntaxError("Expected ':'");
+                c = nextNonWhitespace();
+                break;
+            case EMPTY_DOCUMENT:
+                stack[stackSize - 1] = NONEMPTY_DOCUMENT;
+                c = read();
+                while (isWhitespace(c)) c = read();
+                if (c == -1) return peeked = Token.END_DOCUMENT;
+                break;
+            default:
+                c = read();
+                while (isWhitespace(c)) c = read();
+                if (c == -1) return peeked = Token.END_DOCUMENT;
+                throw syntaxError("Unexpected data after document");
+        }
+        return peeked = readValue(c);
+    }
+    public void beginObject() throws IOException {
+        expect(Token.BEGIN_OBJECT);
+        push(EMPTY_OBJECT);
+    }
+    public void endObject() throws IOException {
+        expect(Token.END_OBJECT);
+        stackSize--;
+    }
+    public void beginArray() throws IOException {
+        expect(Token.BEGIN_ARRAY);
+        push(EMPTY_ARRAY);
+    }
+    public void endArray() throws IOException {
+        expect(Token.END_ARRAY);
+        stackSize--;
+    }
+    public boolean hasNext() throws IOException {
+        Token token = peek();
+        return token != Token.END_OBJECT
+                && token != Token.END_ARRAY
+                && token != Token.END_DOCUMENT;
+    }
+    public String nextName() throws IOException {
+        expect(Token.NAME);
+        return text.toString();
+    }
+    public String nextString() throws IOException {
+        Token token = peek();
+        if (token != Token.STRING && token != Token.NUMBER && token != Token.BOOLEAN) {
+            throw syntaxError("Expected a string but was " + token);
+        }
+        peeked = null;
+        return text.toString();
+    }
+    public long nextLong() throws IOException {
+        Token token = peek();
+        if (token != Token.NUMBER && token != Token.STRING) {
+            throw syntaxError("Expected a number but was " + token);
+        }
+        peeked = null;
+        try {
+            return Long.parseLong(text, 0, text.length(), 10);
+        } catch (NumberFormatException e) {
+            throw syntaxError("Invalid integer");
+        }
+    }
+    public double nextDouble() throws IOException {
+        Token token = peek();
+        if (token != Token.NUMBER && token != Token.STRING) {
+            throw syntaxError("Expected a number but was " + token);
+        }
+        peeked = null;
+        try {
+            return Double.parseDouble(text.toString());
+        } catch (NumberFormatException e) {
+            throw syntaxError("Invalid number");
+        }
+    }
+    public void nextNull() throws IOException {
+        expect(Token.NULL);
+    }
+    public void skipValue() throws IOException {
+        int depth = 0;
+        do {
+            switch (peek()) {
+                case BEGIN_OBJECT:
+                    beginObject();
+                    depth++;
+                    break;
+                case BEGIN_ARRAY:
+                    beginArray();
+                    depth++;
+                    break;
+                case END_OBJECT:
+                    endObject();
+                    depth--;
+                    break;
+                case END_ARRAY:
+                    endArray();
+                    depth--;
+                    break;
+                case END_DOCUMENT:
+                    throw syntaxError("Unexpected end of document");
+                default:
+                    peeked = null;
+            }
+        } while (depth > 0);
+    }
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        if (pooled) {
+            BUFFERS.release(buffer);
+        }
+        in.close();
+    }
+    private void expect(Token expected) throws IOException {
+        Token token = peek();
+        if (token != expected) {
+            throw syntaxError("Expected " + expected + " but was " + token);
+        }
+        peeked = null;
+    }
+    private void push(int scope) throws IOException {
+        if (stackSize == stack.length) {
+            if (stackSize == 256) {
+                throw new JsonReadException(400, "JSON nesting too deep");
+            }
+            int[] grown = new int[stackSize * 2];
+            System.arraycopy(stack, 0, grown, 0, stackSize);
+            stack = grown;
+        }
+        stack[stackSize++] = scope;
+    }
+    private Token readValue(int c) throws IOException {
+        switch (c) {
+            case '{':
+                return Token.BEGIN_OBJECT;
+            case '[':
+                return Token.BEGIN_ARRAY;
+            case '"':
+                readString();
+                return Token.STRING;
+            case 't':
+                readLiteral("rue");
+                text.setLength(0);
+                text.append("true");
+                return Token.BOOLEAN;
+            case 'f':
+                readLiteral("alse");
+                text.setLength(0);
+                text.append("false");
+                return Token.BOOLEAN;
+            case 'n':
+                readLiteral("ull");
+                return Token.NULL;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    readNumber(c);
+                    return Token.NUMBER;
+                }
+                throw syntaxError("Unexpected character");
+        }
+    }
+    private void readLiteral(String rest) throws IOException {
+        for (int i = 0; i < rest.length(); i++) {
+            if (read() != rest.charAt(i)) {
+                throw syntaxError("Invalid literal");
+            }
+        }
+    }
+    private void readNumber(int first) throws IOException {
+        text.setLength(0);
+        text.append((char) first);
+        while (true) {
+            int c = peekByte();
+            if ((c >= '0' && c <= '9') || c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+                text.append((char) c);
+                pos++;
+            } else {
+                return;
+            }
+        }
+    }
+    private void readString() throws IOException {
+        text.setLength(0);
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw syntaxError("Unterminated string");
+            }
+            if (c == '"') {
+                return;
+            }
+            if (c == '\\') {
+                readEscape();
+            } else if (c < 0x80) {
+                text.append((char) c);
+            } else if ((c & 0xE0) == 0xC0) {
+                text.append((char) (((c & 0x1F) << 6) | continuation()));
+            } else if ((c & 0xF0) == 0xE0) {
+                text.append((char) (((c & 0x0F) << 12) | (continuation() << 6) | continuation()));
+            } else if ((c & 0xF8) == 0xF0) {
+                int cp = ((c & 0x07) << 18) | (continuation() << 12) | (continuation() << 6) | continuation();
+                text.appendCodePoint(cp);
+            } else {
+                throw syntaxError("Invalid UTF-8");
+            }
+        }
+    }
+    private int continuation() throws IOException {
+        int c = read();
+        if (c == -1 || (c & 0xC0) != 0x80) {
+            throw syntaxError("Invalid UTF-8");
+        }
+        return c & 0x3F;
+    }
+    private void readEscape() throws IOException {
+        int c = read();
+        switch (c) {
+            case '"': text.append('"'); break;
+            case '\\': text.append('\\'); break;
+            case '/': text.append('/'); break;
+            case 'b': text.append('\b'); break;
+            case 'f': text.append('\f'); break;
+            case 'n': text.append('\n'); break;
+            case 'r': text.append('\r'); break;
+            case 't': text.append('\t'); break;
+            case 'u':
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(read(), 16);
+                    if (digit < 0) throw syntaxError("Invalid unicode escape");
+                    value = (value << 4) | digit;
+                }
+                text.append((char) value);
+                break;
+            default:
+                throw syntaxError("Invalid escape");
+        }
+    }
+    private int nextNonWhitespace() throws IOException {
+        int c = read();
+        while (isWhitespace(c)) {
+            c = read();
+        }
+        if (c == -1) {
+            throw syntaxError("Unexpected end of input");
+        }
+        return c;
+    }
+    private boolean isWhitespace(int c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+    private int peekByte() throws IOException {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        return buffer[pos] & 0xFF;
+    }
+    private int read() throws IOException {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        return buffer[pos++] & 0xFF;
+    }
+    private boolean fill() throws IOException {
+        int n = in.read(buffer, 0, buffer.length);
+        if (n <= 0) {
+            return false;
+        }
+        consumed += n;
+        if (consumed > maxBytes) {
+            throw new JsonReadException(413, "Request body too large");
+        }
+        pos = 0;
+        limit = n;
+        return true;
+    }
+    private JsonReadException syntaxError(String message) {
+        return new JsonReadException(400, "Malformed JSON: " + message);
+    }
+    public enum Token {
+        BEGIN_OBJECT,
+        END_OBJECT,
+        BEGIN_ARRAY,
+        END_ARRAY,
+        NAME,
+        STRING,
+        NUMBER,
+        BOOLEAN,
+        NULL,
+        END_DOCUMENT
+    }
+    public static class JsonReadException extends IOException {
+        private static final long serialVersionUID = 1L;
+        private final int statusCode;
+        public JsonReadException(int statusCode, String message) {
+            super(message);
+            this.statusCode = statusCode;
+        }
+        public int getStatusCode() {
+            return statusCode;
+        }
+    }
+}
\ No newline at end of file
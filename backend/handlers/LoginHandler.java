@@ -1,4 +1,5 @@
 package handlers;
+import core.Money;
 import core.User;
 import core.UserManager;
 import com.sun.net.httpserver.HttpExchange;
@@ -42,10 +43,12 @@ public class LoginHandler extends BaseHandler {
                             + "\"userId\":\"" + result.getUserId() + "\","
                             + "\"token\":\"" + result.getToken() + "\","
                             + "\"username\":\"" + user.getUsername() + "\","
-                            + "\"walletBalance\":" + user.getWalletBalance() + ","
-                            + "\"bankBalance\":" + user.getBankBalance()
+                            + "\"walletBalance\":" + Money.format(user.getWalletBalanceCents()) + ","
+                            + "\"bankBalance\":" + Money.format(user.getBankBalanceCents())
                             + "}"
             );
+        } catch (JsonStreamReader.JsonReadException e) {
+            sendError(exchange, e.getStatusCode(), e.getMessage());
         } catch (Exception e) {
             e.printStackTrace();
             sendError(exchange, 500, "Internal server error");
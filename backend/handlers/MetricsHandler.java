@@ -0,0 +1,200 @@
+package handlers;
+import core.EndpointMetrics;
+import core.LatencyHistogram;
+import core.MaintenanceService;
+import core.MetricsRegistry;
+import core.RequestExecutor;
+import core.SessionStore;
+import core.TransactionMetrics;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+public class MetricsHandler extends BaseHandler {
+    private static final long[] BUCKET_BOUNDS_NANOS = {
+            100_000L, 250_000L, 500_000L,
+            1_000_000L, 2_500_000L, 5_000_000L,
+            10_000_000L, 25_000_000L, 50_000_000L,
+            100_000_000L, 250_000_000L, 500_000_000L,
+            1_000_000_000L, 2_500_000_000L, 5_000_000_000L, 10_000_000_000L
+    };
+    private static final String[] BUCKET_LABELS = new String[BUCKET_BOUNDS_NANOS.length];
+    static {
+        for (int i = 0; i < BUCKET_BOUNDS_NANOS.length; i++) {
+            BUCKET_LABELS[i] = BigDecimal.valueOf(BUCKET_BOUNDS_NANOS[i], 9).stripTrailingZeros().toPlainString();
+        }
+    }
+    private final MetricsRegistry registry;
+    private final TransactionMetrics transactionMetrics;
+    private final RequestExecutor requestExecutor;
+    private final SessionStore sessionStore;
+    private final MaintenanceService maintenanceService;
+    private final String accessToken;
+    public MetricsHandler(
+            MetricsRegistry registry,
+            TransactionMetrics transactionMetrics,
+            RequestExecutor requestExecutor,
+            SessionStore sessionStore,
+            MaintenanceService maintenanceService
+    ) {
+        this.registry = registry;
+        this.transactionMetrics = transactionMetrics;
+        this.requestExecutor = requestExecutor;
+        this.sessionStore = sessionStore;
+        this.maintenanceService = maintenanceService;
+        this.accessToken = System.getenv("WALLET_METRICS_TOKEN");
+    }
+    @Override
+    protected boolean isSheddable() {
+        return false;
+    }
+    @Override
+    protected void handleRequest(HttpExchange exchange) throws IOException {
+        if (!"GET".equalsIgnoreCase(exchange.getRequestMethod())) {
+            sendError(exchange, 405, "Method not allowed");
+            return;
+        }
+        if (accessToken != null && !accessToken.equals(getAuthToken(exchange))) {
+            sendError(exchange, 401, "Unauthorized");
+            return;
+        }
+        StringBuilder out = new StringBuilder(8192);
+        writeHttpMetrics(out);
+        writeTransactionMetrics(out);
+        writeRuntimeMetrics(out);
+        byte[] response = out.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set(
+                "Content-Type",
+                "text/plain; version=0.0.4; charset=utf-8"
+        );
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(response);
+        }
+    }
+    private void writeHttpMetrics(StringBuilder out) {
+        header(out, "wallet_http_requests_total", "counter", "HTTP requests by endpoint and status code.");
+        for (EndpointMetrics endpoint : registry.getEndpoints()) {
+            for (Map.Entry<Integer, Long> status : endpoint.getStatusCounts().entrySet()) {
+                out.append("wallet_http_requests_total{path=\"").append(endpoint.getPath())
+                        .append("\",code=\"").append(status.getKey()).append("\"} ")
+                        .append(status.getValue()).append('\n');
+            }
+        }
+        header(
+                out,
+                "wallet_http_request_duration_seconds",
+                "histogram",
+                "Time spent handling HTTP requests, including writing the response."
+        );
+        for (EndpointMetrics endpoint : registry.getEndpoints()) {
+            histogram(
+                    out,
+                    "wallet_http_request_duration_seconds",
+                    "path=\"" + endpoint.getPath() + "\"",
+                    endpoint.getLatency()
+            );
+        }
+    }
+    private void writeTransactionMetrics(StringBuilder out) {
+        singleHistogram(
+                out,
+                "wallet_ledger_lock_wait_seconds",
+                "Time spent waiting for account locks before a balance change.",
+                transactionMetrics.getLockWait()
+        );
+        singleHistogram(
+                out,
+                "wallet_ledger_persist_seconds",
+                "Time spent appending a ledger change to the journal while holding account locks.",
+                transactionMetrics.getPersist()
+        );
+        singleHistogram(
+                out,
+                "wallet_ledger_durable_wait_seconds",
+                "Time spent waiting for a journal append to become durable after releasing locks.",
+                transactionMetrics.getDurableWait()
+        );
+        singleHistogram(
+                out,
+                "wallet_fraud_check_seconds",
+                "Time spent evaluating fraud rules.",
+                transactionMetrics.getFraudCheck()
+        );
+    }
+    private void writeRuntimeMetrics(StringBuilder out) {
+        gauge(out, "wallet_executor_active_requests", "Requests currently being handled.",
+                requestExecutor.getActiveCount());
+        gauge(out, "wallet_executor_peak_requests", "Highest number of requests handled at once.",
+                requestExecutor.getPeakConcurrency());
+        gauge(out, "wallet_executor_max_requests", "Configured limit on requests handled at once.",
+                requestExecutor.getMaxConcurrency());
+        counter(out, "wallet_executor_completed_total", "Requests completed by the executor.",
+                requestExecutor.getCompletedCount());
+        counter(out, "wallet_executor_overflow_total", "Requests that arrived at the concurrency limit and were shed with 503.",
+                requestExecutor.getOverflowCount());
+        gauge(out, "wallet_sessions_active", "Live login sessions.",
+                sessionStore.getActiveSessions());
+        counter(out, "wallet_sessions_created_total", "Login sessions created.",
+                sessionStore.getCreatedSessions());
+        counter(out, "wallet_sessions_expired_total", "Login sessions that expired.",
+                sessionStore.getExpiredSessions());
+        counter(out, "wallet_sessions_evicted_total", "Login sessions evicted to stay under the session limit.",
+                sessionStore.getEvictedSessions());
+        header(out, "wallet_maintenance_reclaimed_total", "counter", "Idle entries reclaimed by the background sweeper.");
+        for (Map.Entry<String, Long> entry : maintenanceService.getReclaimedEntries().entrySet()) {
+            out.append("wallet_maintenance_reclaimed_total{sweep=\"").append(entry.getKey()).append("\"} ")
+                    .append(entry.getValue()).append('\n');
+        }
+    }
+    private static void singleHistogram(
+            StringBuilder out,
+            String name,
+            String help,
+            LatencyHistogram histogram
+    ) {
+        header(out, name, "histogram", help);
+        histogram(out, name, null, histogram);
+    }
+    private static void histogram(
+            StringBuilder out,
+            String name,
+            String labels,
+            LatencyHistogram histogram
+    ) {
+        long count = histogram.getCount();
+        long sum = histogram.getSum();
+        String prefix = labels == null ? "" : labels + ",";
+        long[] buckets = histogram.getCountsAtOrBelow(BUCKET_BOUNDS_NANOS);
+        for (int i = 0; i < BUCKET_BOUNDS_NANOS.length; i++) {
+            out.append(name).append("_bucket{").append(prefix).append("le=\"")
+                    .append(BUCKET_LABELS[i]).append("\"} ")
+                    .append(Math.min(count, buckets[i])).append('\n');
+        }
+        out.append(name).append("_bucket{").append(prefix).append("le=\"+Inf\"} ")
+                .append(count).append('\n');
+        out.append(name).append("_sum");
+        if (labels != null) out.append('{').append(labels).append('}');
+        out.append(' ').append(seconds(sum)).append('\n');
+        out.append(name).append("_count");
+        if (labels != null) out.append('{').append(labels).append('}');
+        out.append(' ').append(count).append('\n');
+    }
+    private static void gauge(StringBuilder out, String name, String help, long value) {
+        header(out, name, "gauge", help);
+        out.append(name).append(' ').append(value).append('\n');
+    }
+    private static void counter(StringBuilder out, String name, String help, long value) {
+        header(out, name, "counter", help);
+        out.append(name).append(' ').append(value).append('\n');
+    }
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / 1e9);
+    }
+}
\ No newline at end of file
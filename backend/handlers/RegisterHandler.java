@@ -40,6 +40,8 @@ public class RegisterHandler extends BaseHandler {
                                 + "}"
                 );
             }
+        } catch (JsonStreamReader.JsonReadException e) {
+            sendError(exchange, e.getStatusCode(), e.getMessage());
         } catch (Exception e) {
             e.printStackTrace();
             sendError(exchange, 500, "Internal server error");
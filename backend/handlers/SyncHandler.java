@@ -1,4 +1,5 @@
 package handlers;
+import core.Money;
 import core.WalletSecurityManager;
 import core.OfflineSyncEngine;
 import core.OfflineTransaction;
@@ -8,9 +9,10 @@ import core.SyncFailure;
 import core.Transaction;
 import com.sun.net.httpserver.HttpExchange;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 public class SyncHandler extends BaseHandler {
     private final WalletSecurityManager securityManager;
     private final OfflineSyncEngine offlineSyncEngine;
@@ -38,107 +40,133 @@ public class SyncHandler extends BaseHandler {
                 sendError(exchange, 401, "Invalid token");
                 return;
             }
-            Map<String, String> body = parseRequestBody(exchange);
-            String transactionsJson = body.get("transactions");
-            if (transactionsJson == null) {
+            List<OfflineTransaction> offlineTransactions = readSyncRequest(exchange);
+            if (offlineTransactions == null) {
                 sendError(exchange, 400, "Missing transactions");
                 return;
             }
-            List<OfflineTransaction> offlineTransactions =
-                    parseOfflineTransactions(transactionsJson);
             SyncResult result =
                     offlineSyncEngine.syncOfflineTransactions(
                             userId,
                             offlineTransactions
                     );
-            sendJsonResponse(
-                    exchange,
-                    result.isSuccess() ? 200 : 400,
-                    buildSyncResponse(result)
-            );
+            try (JsonStreamWriter json = startJsonStream(exchange, result.isSuccess() ? 200 : 400)) {
+                writeSyncResponse(json, result);
+            }
+        } catch (JsonStreamReader.JsonReadException e) {
+            sendError(exchange, e.getStatusCode(), e.getMessage());
         } catch (Exception e) {
             e.printStackTrace();
             sendError(exchange, 500, "Internal server error");
         }
     }
-    private List<OfflineTransaction> parseOfflineTransactions(String json) {
+    private List<OfflineTransaction> readSyncRequest(HttpExchange exchange)
+            throws IOException {
+        List<OfflineTransaction> list = null;
+        try (InputStream is = exchange.getRequestBody();
+             JsonStreamReader reader = openJsonStream(is)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!"transactions".equals(reader.nextName())) {
+                    reader.skipValue();
+                } else if (reader.peek() == JsonStreamReader.Token.STRING) {
+                    byte[] nested = reader.nextString().getBytes(StandardCharsets.UTF_8);
+                    list = readOfflineTransactions(new JsonStreamReader(nested));
+                } else if (reader.peek() == JsonStreamReader.Token.BEGIN_ARRAY) {
+                    list = readOfflineTransactions(reader);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        return list;
+    }
+    private List<OfflineTransaction> readOfflineTransactions(JsonStreamReader reader)
+            throws IOException {
         List<OfflineTransaction> list = new ArrayList<>();
-        if (json == null || json.isBlank()) return list;
-        String trimmed = json.trim();
-        if (!trimmed.startsWith("[") || !trimmed.endsWith("]")) return list;
-        String array = trimmed.substring(1, trimmed.length() - 1);
-        List<String> objects = splitJsonObjects(array);
-        for (String obj : objects) {
-            OfflineTransaction txn = parseSingleOfflineTransaction(obj);
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (reader.peek() != JsonStreamReader.Token.BEGIN_OBJECT) {
+                reader.skipValue();
+                continue;
+            }
+            OfflineTransaction txn = readOfflineTransaction(reader);
             if (txn != null) list.add(txn);
         }
+        reader.endArray();
         return list;
     }
-    private OfflineTransaction parseSingleOfflineTransaction(String json) {
-        Map<String, String> data = parseSimpleJson(json);
+    private OfflineTransaction readOfflineTransaction(JsonStreamReader reader)
+            throws IOException {
+        String clientTransactionId = null;
+        String type = null;
+        String receiverId = null;
+        String amount = null;
+        String clientTimestamp = null;
+        String signature = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            JsonStreamReader.Token token = reader.peek();
+            if (token != JsonStreamReader.Token.STRING
+                    && token != JsonStreamReader.Token.NUMBER
+                    && token != JsonStreamReader.Token.BOOLEAN) {
+                reader.skipValue();
+                continue;
+            }
+            String value = reader.nextString();
+            switch (name) {
+                case "clientTransactionId": clientTransactionId = value; break;
+                case "type": type = value; break;
+                case "receiverId": receiverId = value; break;
+                case "amount": amount = value; break;
+                case "clientTimestamp": clientTimestamp = value; break;
+                case "signature": signature = value; break;
+                default: break;
+            }
+        }
+        reader.endObject();
         try {
             return new OfflineTransaction(
-                    data.get("clientTransactionId"),
-                    Transaction.TransactionType.valueOf(data.get("type")),
-                    data.get("receiverId"),
-                    Double.parseDouble(data.get("amount")),
-                    Long.parseLong(data.get("clientTimestamp")),
-                    data.get("signature")
+                    clientTransactionId,
+                    Transaction.TransactionType.valueOf(type),
+                    receiverId,
+                    Double.parseDouble(amount),
+                    Long.parseLong(clientTimestamp),
+                    signature
             );
         } catch (Exception e) {
             return null;
         }
     }
-    private List<String> splitJsonObjects(String array) {
-        List<String> objects = new ArrayList<>();
-        int depth = 0;
-        int start = -1;
-        for (int i = 0; i < array.length(); i++) {
-            char c = array.charAt(i);
-            if (c == '{') {
-                if (depth == 0) start = i;
-                depth++;
-            } else if (c == '}') {
-                depth--;
-                if (depth == 0 && start != -1) {
-                    objects.add(array.substring(start, i + 1));
-                    start = -1;
-                }
-            }
-        }
-        return objects;
-    }
-    private String buildSyncResponse(SyncResult result) {
-        StringBuilder json = new StringBuilder();
-        json.append("{\"success\":").append(result.isSuccess()).append(",");
-        json.append("\"message\":\"").append(result.getMessage()).append("\",");
-        json.append("\"syncedTransactions\":[");
-        List<SyncedTransaction> synced = result.getSyncedTransactions();
-        for (int i = 0; i < synced.size(); i++) {
-            if (i > 0) json.append(",");
-            SyncedTransaction t = synced.get(i);
-            json.append("{")
-                    .append("\"clientTransactionId\":\"").append(t.getClientTransactionId()).append("\",")
-                    .append("\"serverTransactionId\":\"").append(t.getServerTransactionId()).append("\",")
-                    .append("\"type\":\"").append(t.getType()).append("\",")
-                    .append("\"amount\":").append(t.getAmount()).append(",")
-                    .append("\"newBalance\":").append(t.getNewBalance())
-                    .append("}");
+    private void writeSyncResponse(JsonStreamWriter json, SyncResult result)
+            throws IOException {
+        json.beginObject()
+                .field("success", result.isSuccess())
+                .field("message", result.getMessage());
+        json.name("syncedTransactions").beginArray();
+        for (SyncedTransaction t : result.getSyncedTransactions()) {
+            json.beginObject()
+                    .field("clientTransactionId", t.getClientTransactionId())
+                    .field("serverTransactionId", t.getServerTransactionId())
+                    .name("type").value(t.getType())
+                    .name("amount").rawValue(Money.format(t.getAmountCents()))
+                    .name("newBalance").rawValue(Money.format(t.getNewBalanceCents()))
+                    .field("replayed", t.isReplayed())
+                    .endObject();
         }
-        json.append("],");
-        json.append("\"failures\":[");
-        List<SyncFailure> failures = result.getFailures();
-        for (int i = 0; i < failures.size(); i++) {
-            if (i > 0) json.append(",");
-            SyncFailure f = failures.get(i);
-            json.append("{")
-                    .append("\"clientTransactionId\":\"").append(f.getClientTransactionId()).append("\",")
-                    .append("\"type\":\"").append(f.getType()).append("\",")
-                    .append("\"amount\":").append(f.getAmount()).append(",")
-                    .append("\"reason\":\"").append(f.getReason()).append("\"")
-                    .append("}");
+        json.endArray();
+        json.name("failures").beginArray();
+        for (SyncFailure f : result.getFailures()) {
+            json.beginObject()
+                    .field("clientTransactionId", f.getClientTransactionId())
+                    .name("type").value(f.getType())
+                    .name("amount").rawValue(Double.toString(f.getAmount()))
+                    .field("reason", f.getReason())
+                    .endObject();
         }
-        json.append("]}");
-        return json.toString();
+        json.endArray();
+        json.endObject();
     }
 }
\ No newline at end of file
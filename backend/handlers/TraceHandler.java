@@ -0,0 +1,86 @@
+package handlers;
+import core.Money;
+import core.OperationTrace;
+import core.OperationTracer;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+public class TraceHandler extends BaseHandler {
+    private static final int DEFAULT_LIMIT = 50;
+    private final OperationTracer tracer;
+    private final String adminToken;
+    public TraceHandler(OperationTracer tracer) {
+        this.tracer = tracer;
+        this.adminToken = System.getenv("WALLET_ADMIN_TOKEN");
+    }
+    @Override
+    protected void handleRequest(HttpExchange exchange) throws IOException {
+        if (adminToken == null) {
+            sendError(exchange, 403, "Admin access disabled");
+            return;
+        }
+        if (!adminToken.equals(getAuthToken(exchange))) {
+            sendError(exchange, 401, "Unauthorized");
+            return;
+        }
+        try {
+            if ("GET".equalsIgnoreCase(exchange.getRequestMethod())) {
+                String limit = parseQueryParams(exchange).get("limit");
+                writeTraces(exchange, limit == null ? DEFAULT_LIMIT : Integer.parseInt(limit));
+            } else if ("POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+                Map<String, String> body = parseRequestBody(exchange);
+                if (body.get("enabled") != null) {
+                    tracer.setEnabled(Boolean.parseBoolean(body.get("enabled")));
+                }
+                if (body.get("slowThresholdMs") != null) {
+                    tracer.setSlowThresholdMs(Long.parseLong(body.get("slowThresholdMs")));
+                }
+                if (Boolean.parseBoolean(body.get("clear"))) {
+                    tracer.clear();
+                }
+                writeTraces(exchange, 0);
+            } else {
+                sendError(exchange, 405, "Method not allowed");
+            }
+        } catch (NumberFormatException e) {
+            sendError(exchange, 400, "Invalid number");
+        } catch (JsonStreamReader.JsonReadException e) {
+            sendError(exchange, e.getStatusCode(), e.getMessage());
+        }
+    }
+    private void writeTraces(HttpExchange exchange, int limit) throws IOException {
+        try (JsonStreamWriter json = startJsonStream(exchange, 200)) {
+            json.beginObject()
+                    .field("success", true)
+                    .field("enabled", tracer.isEnabled())
+                    .field("slowThresholdMs", tracer.getSlowThresholdMs())
+                    .field("capacity", tracer.getCapacity())
+                    .field("traced", tracer.getTracedCount())
+                    .field("slow", tracer.getSlowCount());
+            json.name("traces").beginArray();
+            for (OperationTrace trace : tracer.getSlowTraces(Math.max(0, limit))) {
+                json.beginObject()
+                        .name("type").value(trace.getType())
+                        .field("userId", trace.getUserId())
+                        .field("counterpartyId", trace.getCounterpartyId())
+                        .name("amount").rawValue(Money.format(trace.getAmountCents()))
+                        .field("transactionId", trace.getTransactionId())
+                        .field("success", trace.isSuccess())
+                        .field("message", trace.getMessage())
+                        .field("startedAt", trace.getStartedAt())
+                        .name("totalMs").rawValue(millis(trace.getTotalNanos()));
+                json.name("phasesMs").beginObject();
+                for (OperationTrace.Phase phase : OperationTrace.Phase.values()) {
+                    json.name(phase.name()).rawValue(millis(trace.getPhaseNanos(phase)));
+                }
+                json.name("UNATTRIBUTED").rawValue(millis(trace.getUnattributedNanos()));
+                json.endObject().endObject();
+            }
+            json.endArray().endObject();
+        }
+    }
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+    }
+}
\ No newline at end of file
@@ -1,11 +1,17 @@
 package handlers;
+import core.Money;
 import core.Transaction;
 import core.TransactionEngine;
+import core.TransactionPage;
+import core.TransactionQuery;
 import core.WalletSecurityManager;
 import com.sun.net.httpserver.HttpExchange;
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 public class TransactionHistoryHandler extends BaseHandler {
+    private static final List<String> PAGE_PARAMETERS =
+            List.of("limit", "cursor", "type", "status", "direction", "from", "to");
     private final TransactionEngine transactionEngine;
     private final WalletSecurityManager securityManager;
     public TransactionHistoryHandler(
@@ -31,39 +37,91 @@ public class TransactionHistoryHandler extends BaseHandler {
             sendError(exchange, 401, "Invalid token");
             return;
         }
+        Map<String, String> params = parseQueryParams(exchange);
+        if (isPageRequest(params)) {
+            sendPage(exchange, userId, params);
+            return;
+        }
         List<Transaction> transactions =
                 transactionEngine.getUserTransactions(userId);
-        StringBuilder json = new StringBuilder();
-        json.append("{\"success\":true,\"transactions\":[");
-        for (int i = 0; i < transactions.size(); i++) {
-            Transaction txn = transactions.get(i);
-            boolean isSender = userId.equals(txn.getSenderId());
-            if (i > 0) json.append(",");
-            json.append("{")
-                .append("\"transactionId\":\"").append(txn.getTransactionId()).append("\",")
-                .append("\"type\":\"").append(txn.getType()).append("\",")
-                .append("\"direction\":\"")
-                .append(isSender ? "SENT" : "RECEIVED")
-                .append("\",")
-                .append("\"senderId\":\"")
-                .append(txn.getSenderId() == null ? "" : txn.getSenderId())
-                .append("\",")
-                .append("\"senderUsername\":\"")
-                .append(txn.getSenderUsername() == null ? "" : txn.getSenderUsername())
-                .append("\",")
-                .append("\"receiverId\":\"")
-                .append(txn.getReceiverId() == null ? "" : txn.getReceiverId())
-                .append("\",")
-                .append("\"receiverUsername\":\"")
-                .append(txn.getReceiverUsername() == null ? "" : txn.getReceiverUsername())
-                .append("\",")
-                .append("\"amount\":").append(txn.getAmount()).append(",")
-                .append("\"status\":\"").append(txn.getStatus()).append("\",")
-                .append("\"createdAt\":").append(txn.getCreatedAt()).append(",")
-                .append("\"completedAt\":").append(txn.getCompletedAt())
-                .append("}");
+        try (JsonStreamWriter json = startJsonStream(exchange, 200)) {
+            json.beginObject().field("success", true);
+            writeTransactions(json, userId, transactions);
+            json.endObject();
+        }
+    }
+    private void sendPage(
+            HttpExchange exchange,
+            String userId,
+            Map<String, String> params
+    ) throws IOException {
+        TransactionPage page;
+        try {
+            page = transactionEngine.getUserTransactions(userId, parseQuery(params));
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, "Invalid query parameters");
+            return;
+        }
+        try (JsonStreamWriter json = startJsonStream(exchange, 200)) {
+            json.beginObject().field("success", true);
+            writeTransactions(json, userId, page.getTransactions());
+            json.field("hasMore", page.hasMore())
+                    .field("nextCursor", page.getNextCursor())
+                    .endObject();
         }
-        json.append("]}");
-        sendJsonResponse(exchange, 200, json.toString());
+    }
+    private boolean isPageRequest(Map<String, String> params) {
+        for (String name : PAGE_PARAMETERS) {
+            if (params.containsKey(name)) return true;
+        }
+        return false;
+    }
+    private TransactionQuery parseQuery(Map<String, String> params) {
+        String limit = params.get("limit");
+        String type = params.get("type");
+        String status = params.get("status");
+        String direction = params.get("direction");
+        String from = params.get("from");
+        String to = params.get("to");
+        return new TransactionQuery(
+                params.get("cursor"),
+                limit == null ? null : Integer.parseInt(limit),
+                type == null ? null : Transaction.TransactionType.valueOf(type.toUpperCase()),
+                status == null ? null : Transaction.TransactionStatus.valueOf(status.toUpperCase()),
+                direction == null ? null : TransactionQuery.Direction.valueOf(direction.toUpperCase()),
+                from == null ? null : Long.parseLong(from),
+                to == null ? null : Long.parseLong(to)
+        );
+    }
+    private void writeTransactions(
+            JsonStreamWriter json,
+            String userId,
+            List<Transaction> transactions
+    ) throws IOException {
+        json.name("transactions").beginArray();
+        for (Transaction txn : transactions) {
+            writeTransaction(json, userId, txn);
+        }
+        json.endArray();
+    }
+    static void writeTransaction(
+            JsonStreamWriter json,
+            String userId,
+            Transaction txn
+    ) throws IOException {
+        boolean isSender = userId.equals(txn.getSenderId());
+        json.beginObject()
+            .field("transactionId", txn.getTransactionId())
+            .name("type").value(txn.getType())
+            .field("direction", isSender ? "SENT" : "RECEIVED")
+            .field("senderId", txn.getSenderId() == null ? "" : txn.getSenderId())
+            .field("senderUsername", txn.getSenderUsername() == null ? "" : txn.getSenderUsername())
+            .field("receiverId", txn.getReceiverId() == null ? "" : txn.getReceiverId())
+            .field("receiverUsername", txn.getReceiverUsername() == null ? "" : txn.getReceiverUsername())
+            .name("amount").rawValue(Money.format(txn.getAmountCents()))
+            .name("status").value(txn.getStatus())
+            .field("createdAt", txn.getCreatedAt())
+            .field("completedAt", txn.getCompletedAt())
+            .endObject();
     }
 }
\ No newline at end of file
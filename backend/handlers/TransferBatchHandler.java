@@ -0,0 +1,165 @@
+package handlers;
+import core.BatchTransferResult;
+import core.Money;
+import core.TransactionEngine;
+import core.TransferLeg;
+import core.User;
+import core.UserManager;
+import core.WalletSecurityManager;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+public class TransferBatchHandler extends BaseHandler {
+    private final UserManager userManager;
+    private final TransactionEngine transactionEngine;
+    private final WalletSecurityManager securityManager;
+    public TransferBatchHandler(
+            UserManager userManager,
+            WalletSecurityManager securityManager,
+            TransactionEngine transactionEngine
+    ) {
+        this.userManager = userManager;
+        this.securityManager = securityManager;
+        this.transactionEngine = transactionEngine;
+    }
+    @Override
+    protected void handleRequest(HttpExchange exchange) throws IOException {
+        if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+            sendError(exchange, 405, "Method not allowed");
+            return;
+        }
+        try {
+            String token = getAuthToken(exchange);
+            if (token == null) {
+                sendError(exchange, 401, "Unauthorized");
+                return;
+            }
+            String userId = securityManager.validateToken(token);
+            if (userId == null) {
+                sendError(exchange, 401, "Invalid token");
+                return;
+            }
+            BatchRequest request = readBatchRequest(exchange);
+            if (request.usernames.isEmpty()) {
+                sendError(exchange, 400, "Transfers required");
+                return;
+            }
+            TransactionEngine.BatchMode mode;
+            try {
+                mode = TransactionEngine.BatchMode.parse(request.mode);
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, 400, "Invalid mode");
+                return;
+            }
+            List<TransferLeg> legs = new ArrayList<>(request.usernames.size());
+            for (int i = 0; i < request.usernames.size(); i++) {
+                String username = request.usernames.get(i);
+                User receiver = username == null ? null : userManager.getUserByUsername(username);
+                legs.add(new TransferLeg(
+                        receiver == null ? null : receiver.getUserId(),
+                        Money.parse(request.amounts.get(i))
+                ));
+            }
+            BatchTransferResult result = transactionEngine.transferBatch(userId, legs, mode);
+            try (JsonStreamWriter json = startJsonStream(exchange, result.isApplied() ? 200 : 400)) {
+                writeBatchResponse(json, mode, request.usernames, result);
+            }
+        } catch (NumberFormatException e) {
+            sendError(exchange, 400, "Invalid amount");
+        } catch (JsonStreamReader.JsonReadException e) {
+            sendError(exchange, e.getStatusCode(), e.getMessage());
+        } catch (Exception e) {
+            e.printStackTrace();
+            sendError(exchange, 500, "Internal server error");
+        }
+    }
+    private BatchRequest readBatchRequest(HttpExchange exchange) throws IOException {
+        BatchRequest request = new BatchRequest();
+        try (InputStream is = exchange.getRequestBody();
+             JsonStreamReader reader = openJsonStream(is)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if ("mode".equals(name) && reader.peek() == JsonStreamReader.Token.STRING) {
+                    request.mode = reader.nextString();
+                } else if ("transfers".equals(name)
+                        && reader.peek() == JsonStreamReader.Token.BEGIN_ARRAY) {
+                    readTransfers(reader, request);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        return request;
+    }
+    private void readTransfers(JsonStreamReader reader, BatchRequest request) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (reader.peek() != JsonStreamReader.Token.BEGIN_OBJECT) {
+                reader.skipValue();
+                continue;
+            }
+            String receiverUsername = null;
+            String amount = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                JsonStreamReader.Token token = reader.peek();
+                if (token != JsonStreamReader.Token.STRING && token != JsonStreamReader.Token.NUMBER) {
+                    reader.skipValue();
+                    continue;
+                }
+                String value = reader.nextString();
+                switch (name) {
+                    case "receiverUsername": receiverUsername = value; break;
+                    case "amount": amount = value; break;
+                    default: break;
+                }
+            }
+            reader.endObject();
+            request.usernames.add(receiverUsername);
+            request.amounts.add(amount);
+        }
+        reader.endArray();
+    }
+    private void writeBatchResponse(
+            JsonStreamWriter json,
+            TransactionEngine.BatchMode mode,
+            List<String> usernames,
+            BatchTransferResult result
+    ) throws IOException {
+        json.beginObject()
+                .field("success", result.isSuccess())
+                .field("message", result.getMessage())
+                .name("mode").value(mode)
+                .name("transferred").rawValue(Money.format(result.getTransferredCents()));
+        if (result.isApplied()) {
+            json.name("newBalance").rawValue(Money.format(result.getNewBalanceCents()));
+        }
+        json.name("transfers").beginArray();
+        List<BatchTransferResult.LegResult> legs = result.getLegs();
+        for (int i = 0; i < legs.size(); i++) {
+            BatchTransferResult.LegResult leg = legs.get(i);
+            json.beginObject()
+                    .field("receiverUsername", usernames.get(i))
+                    .name("amount").rawValue(Money.format(leg.getAmountCents()))
+                    .field("success", leg.isSuccess());
+            if (leg.isSuccess()) {
+                json.field("transactionId", leg.getTransactionId());
+            } else {
+                json.field("reason", leg.getReason());
+            }
+            json.endObject();
+        }
+        json.endArray();
+        json.endObject();
+    }
+    private static class BatchRequest {
+        private String mode;
+        private final List<String> usernames = new ArrayList<>();
+        private final List<String> amounts = new ArrayList<>();
+    }
+}
\ No newline at end of file
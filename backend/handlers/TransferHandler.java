@@ -1,5 +1,6 @@
 package handlers;
 import core.UserManager;
+import core.Money;
 import core.TransactionEngine;
 import core.WalletSecurityManager;
 import core.TransactionResult;
@@ -43,7 +44,7 @@ public class TransferHandler extends BaseHandler {
                 sendError(exchange, 400, "Receiver username required");
                 return;
             }
-            double amount = Double.parseDouble(body.get("amount"));
+            long amountCents = Money.parse(body.get("amount"));
             User receiver = userManager.getUserByUsername(receiverUsername);
             if (receiver == null) {
                 sendError(exchange, 404, "Receiver not found");
@@ -53,7 +54,7 @@ public class TransferHandler extends BaseHandler {
                     transactionEngine.transfer(
                             userId,
                             receiver.getUserId(),
-                            amount
+                            amountCents
                     );
             if (!result.isSuccess()) {
                 sendJsonResponse(
@@ -73,11 +74,13 @@ public class TransferHandler extends BaseHandler {
                             + "\"success\":true,"
                             + "\"message\":\"" + result.getMessage() + "\","
                             + "\"transactionId\":\"" + result.getTransactionId() + "\","
-                            + "\"newBalance\":" + result.getNewBalance()
+                            + "\"newBalance\":" + Money.format(result.getNewBalanceCents())
                             + "}"
             );
         } catch (NumberFormatException e) {
             sendError(exchange, 400, "Invalid amount");
+        } catch (JsonStreamReader.JsonReadException e) {
+            sendError(exchange, e.getStatusCode(), e.getMessage());
         } catch (Exception e) {
             e.printStackTrace();
             sendError(exchange, 500, "Internal server error");
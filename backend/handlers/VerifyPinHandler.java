@@ -48,6 +48,8 @@ public class VerifyPinHandler extends BaseHandler {
                             + "\"message\":\"" + (valid ? "PIN verified" : "Invalid PIN") + "\""
                             + "}"
             );
+        } catch (JsonStreamReader.JsonReadException e) {
+            sendError(exchange, e.getStatusCode(), e.getMessage());
         } catch (Exception e) {
             e.printStackTrace();
             sendError(exchange, 500, "Internal server error");
@@ -0,0 +1,288 @@
+package handlers;
+import core.Money;
+import core.User;
+import core.UserManager;
+import core.WalletEvent;
+import core.WalletEventBus;
+import core.WalletSecurityManager;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+public class WalletEventsHandler extends BaseHandler {
+    private static final long DEFAULT_POLL_TIMEOUT_MS = 25_000;
+    private static final long MAX_POLL_TIMEOUT_MS = 60_000;
+    private static final long HEARTBEAT_MS = 15_000;
+    private static final long MAX_STREAM_MS = 5 * 60_000;
+    private static final byte[] HEARTBEAT = ": keepalive\n\n".getBytes(StandardCharsets.UTF_8);
+    private final UserManager userManager;
+    private final WalletSecurityManager securityManager;
+    private final WalletEventBus events;
+    private final Semaphore listeners;
+    private final int maxListeners;
+    private final ScheduledThreadPoolExecutor timers;
+    private final ExecutorService writers;
+    public WalletEventsHandler(
+            UserManager userManager,
+            WalletSecurityManager securityManager,
+            WalletEventBus events,
+            int maxListeners
+    ) {
+        this.userManager = userManager;
+        this.securityManager = securityManager;
+        this.events = events;
+        this.maxListeners = maxListeners;
+        this.listeners = new Semaphore(maxListeners);
+        this.timers = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "wallet-events-timer");
+            t.setDaemon(true);
+            return t;
+        });
+        this.timers.setRemoveOnCancelPolicy(true);
+        this.writers = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "wallet-events-writer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+    @Override
+    protected void handleRequest(HttpExchange exchange) throws IOException {
+        if (!"GET".equalsIgnoreCase(exchange.getRequestMethod())) {
+            sendError(exchange, 405, "Method not allowed");
+            return;
+        }
+        String token = getAuthToken(exchange);
+        if (token == null) {
+            sendError(exchange, 401, "Unauthorized");
+            return;
+        }
+        String userId = securityManager.validateToken(token);
+        if (userId == null) {
+            sendError(exchange, 401, "Invalid token");
+            return;
+        }
+        User user = userManager.getUser(userId);
+        if (user == null) {
+            sendError(exchange, 404, "User not found");
+            return;
+        }
+        Map<String, String> params = parseQueryParams(exchange);
+        Long since;
+        long timeoutMs;
+        try {
+            String lastEventId = exchange.getRequestHeaders().getFirst("Last-Event-ID");
+            String sinceParam = lastEventId != null ? lastEventId : params.get("since");
+            since = sinceParam == null ? null : Long.parseLong(sinceParam.trim());
+            timeoutMs = params.containsKey("timeout")
+                    ? Math.min(MAX_POLL_TIMEOUT_MS, Math.max(0, Long.parseLong(params.get("timeout")) * 1000))
+                    : DEFAULT_POLL_TIMEOUT_MS;
+        } catch (NumberFormatException e) {
+            sendError(exchange, 400, "Invalid query parameters");
+            return;
+        }
+        if (!listeners.tryAcquire()) {
+            exchange.getResponseHeaders().set("Retry-After", "5");
+            sendError(exchange, 503, "Too many event listeners");
+            return;
+        }
+        long cursor = events.subscribe(userId);
+        String accept = exchange.getRequestHeaders().getFirst("Accept");
+        Listener listener = accept != null && accept.contains("text/event-stream")
+                ? new StreamListener(exchange, token, user, cursor)
+                : new PollListener(exchange, user, cursor, timeoutMs);
+        defer(exchange);
+        try {
+            listener.start(since);
+        } catch (IOException | RuntimeException e) {
+            listener.finish();
+            throw e;
+        }
+    }
+    public int getMaxListeners() {
+        return maxListeners;
+    }
+    public void shutdown() {
+        timers.shutdownNow();
+        writers.shutdownNow();
+    }
+    private abstract class Listener {
+        final HttpExchange exchange;
+        final User user;
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private volatile ScheduledFuture<?> timeout;
+        Listener(HttpExchange exchange, User user) {
+            this.exchange = exchange;
+            this.user = user;
+        }
+        abstract void start(Long since) throws IOException;
+        abstract void deliver(WalletEventBus.EventBatch batch) throws IOException;
+        void watch(long after, long timeoutMs) {
+            WalletEventBus.Watch watch = events.watch(user.getUserId(), after, this::onBatch);
+            timeout = timers.schedule(watch::expire, timeoutMs, TimeUnit.MILLISECONDS);
+        }
+        private void onBatch(WalletEventBus.EventBatch batch) {
+            ScheduledFuture<?> pending = timeout;
+            if (pending != null) {
+                pending.cancel(false);
+            }
+            try {
+                writers.execute(() -> {
+                    try {
+                        deliver(batch);
+                    } catch (IOException | RuntimeException e) {
+                        exchange.close();
+                        finish();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                exchange.close();
+                finish();
+            }
+        }
+        void finish() {
+            if (!finished.compareAndSet(false, true)) return;
+            events.unsubscribe(user.getUserId());
+            listeners.release();
+            complete(exchange);
+        }
+    }
+    private class PollListener extends Listener {
+        private final long cursor;
+        private final long timeoutMs;
+        PollListener(HttpExchange exchange, User user, long cursor, long timeoutMs) {
+            super(exchange, user);
+            this.cursor = cursor;
+            this.timeoutMs = timeoutMs;
+        }
+        @Override
+        void start(Long since) throws IOException {
+            if (since == null) {
+                respond(null);
+            } else {
+                watch(since, timeoutMs);
+            }
+        }
+        @Override
+        void deliver(WalletEventBus.EventBatch batch) throws IOException {
+            respond(batch);
+        }
+        private void respond(WalletEventBus.EventBatch batch) throws IOException {
+            try (JsonStreamWriter json = startJsonStream(exchange, 200)) {
+                json.beginObject().field("success", true);
+                json.name("events").beginArray();
+                long lastEventId;
+                if (batch == null || batch.isResync()) {
+                    lastEventId = batch == null ? cursor : batch.getLastEventId();
+                    writeEvent(json, WalletEvent.balance(lastEventId, user.getUserId(), user.getBalances()));
+                } else {
+                    lastEventId = batch.getLastEventId();
+                    for (WalletEvent event : batch.getEvents()) {
+                        writeEvent(json, event);
+                    }
+                }
+                json.endArray();
+                json.field("resync", batch != null && batch.isResync())
+                        .field("lastEventId", lastEventId)
+                        .endObject();
+            } finally {
+                finish();
+            }
+        }
+    }
+    private class StreamListener extends Listener {
+        private final String token;
+        private final long cursor;
+        private final long deadline = System.currentTimeMillis() + MAX_STREAM_MS;
+        private OutputStream os;
+        private JsonStreamWriter json;
+        StreamListener(HttpExchange exchange, String token, User user, long cursor) {
+            super(exchange, user);
+            this.token = token;
+            this.cursor = cursor;
+        }
+        @Override
+        void start(Long since) throws IOException {
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=UTF-8");
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+            exchange.sendResponseHeaders(200, 0);
+            os = exchange.getResponseBody();
+            json = new JsonStreamWriter(os);
+            os.write("retry: 3000\n\n".getBytes(StandardCharsets.UTF_8));
+            if (since == null) {
+                writeSseEvent(os, json, WalletEvent.balance(cursor, user.getUserId(), user.getBalances()));
+            }
+            next(since == null ? cursor : since);
+        }
+        @Override
+        void deliver(WalletEventBus.EventBatch batch) throws IOException {
+            List<WalletEvent> batchEvents = batch.getEvents();
+            if (batch.isResync()) {
+                writeSseEvent(os, json, WalletEvent.balance(batch.getLastEventId(), user.getUserId(), user.getBalances()));
+            } else if (batchEvents.isEmpty()) {
+                os.write(HEARTBEAT);
+                os.flush();
+            }
+            for (WalletEvent event : batchEvents) {
+                writeSseEvent(os, json, event);
+            }
+            next(batch.getLastEventId());
+        }
+        private void next(long after) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining > 0 && securityManager.validateToken(token) != null) {
+                watch(after, Math.min(HEARTBEAT_MS, remaining));
+                return;
+            }
+            finish();
+        }
+        @Override
+        void finish() {
+            try {
+                if (json != null) {
+                    json.close();
+                }
+            } catch (IOException e) {
+                exchange.close();
+            } finally {
+                super.finish();
+            }
+        }
+    }
+    private void writeSseEvent(OutputStream os, JsonStreamWriter json, WalletEvent event)
+            throws IOException {
+        String header = "id: " + event.getId() + "\n"
+                + "event: " + event.getType().name().toLowerCase() + "\n"
+                + "data: ";
+        os.write(header.getBytes(StandardCharsets.UTF_8));
+        writeEvent(json, event);
+        json.flush();
+        os.write('\n');
+        os.write('\n');
+        os.flush();
+    }
+    private void writeEvent(JsonStreamWriter json, WalletEvent event) throws IOException {
+        json.beginObject()
+                .field("id", event.getId())
+                .name("type").value(event.getType());
+        if (event.getType() == WalletEvent.Type.TRANSACTION) {
+            json.name("transaction");
+            TransactionHistoryHandler.writeTransaction(json, event.getUserId(), event.getTransaction());
+        } else {
+            User.Balances balances = event.getBalances();
+            json.field("version", balances.getVersion())
+                    .name("walletBalance").rawValue(Money.format(balances.getWalletBalanceCents()))
+                    .name("bankBalance").rawValue(Money.format(balances.getBankBalanceCents()));
+        }
+        json.endObject();
+    }
+}
\ No newline at end of file
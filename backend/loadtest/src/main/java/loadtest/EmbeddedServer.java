@@ -0,0 +1,45 @@
+package loadtest;
+import java.lang.reflect.InvocationTargetException;
+public class EmbeddedServer implements AutoCloseable {
+    private final Object server;
+    private final int port;
+    private EmbeddedServer(Object server, int port) {
+        this.server = server;
+        this.port = port;
+    }
+    public static EmbeddedServer start() throws Exception {
+        Class<?> type = Class.forName("WalletServer");
+        Object server = unwrap(() -> type.getConstructor(int.class).newInstance(0));
+        unwrap(() -> type.getMethod("start").invoke(server));
+        int port = (Integer) unwrap(() -> type.getMethod("getPort").invoke(server));
+        return new EmbeddedServer(server, port);
+    }
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + port;
+    }
+    @Override
+    public void close() {
+        try {
+            unwrap(() -> server.getClass().getMethod("stop").invoke(server));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to stop embedded server", e);
+        }
+    }
+    private static Object unwrap(ReflectiveCall call) throws Exception {
+        try {
+            return call.invoke();
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+    private interface ReflectiveCall {
+        Object invoke() throws Exception;
+    }
+}
\ No newline at end of file
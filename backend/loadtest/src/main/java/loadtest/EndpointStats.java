@@ -0,0 +1,44 @@
+package loadtest;
+import core.LatencyHistogram;
+import java.util.concurrent.atomic.LongAdder;
+public class EndpointStats {
+    private final Operation operation;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    public EndpointStats(Operation operation) {
+        this.operation = operation;
+    }
+    public void recordResponse(int statusCode, long latencyNanos) {
+        latency.record(latencyNanos);
+        if (statusCode >= 200 && statusCode < 300) {
+            succeeded.increment();
+        } else if (statusCode >= 400 && statusCode < 500) {
+            rejected.increment();
+        } else {
+            failed.increment();
+        }
+    }
+    public void recordFailure(long latencyNanos) {
+        latency.record(latencyNanos);
+        failed.increment();
+    }
+    public void recordDropped() {
+        dropped.increment();
+    }
+    public void reset() {
+        latency.reset();
+        succeeded.reset();
+        rejected.reset();
+        failed.reset();
+        dropped.reset();
+    }
+    public Operation getOperation() { return operation; }
+    public LatencyHistogram getLatency() { return latency; }
+    public long getSucceeded() { return succeeded.sum(); }
+    public long getRejected() { return rejected.sum(); }
+    public long getFailed() { return failed.sum(); }
+    public long getDropped() { return dropped.sum(); }
+}
\ No newline at end of file
@@ -0,0 +1,111 @@
+package loadtest;
+import java.util.EnumMap;
+import java.util.Map;
+public class LoadConfig {
+    private static final int DEFAULT_USERS = 100;
+    private static final double DEFAULT_RATE = 200;
+    private static final int DEFAULT_DURATION_S = 30;
+    private static final int DEFAULT_WARMUP_S = 5;
+    private static final int DEFAULT_MAX_IN_FLIGHT = 512;
+    private static final String DEFAULT_MIX = "add-money=15,withdraw=10,transfer=35,history=30,sync=10";
+    private final String target;
+    private final int users;
+    private final double rate;
+    private final int durationSeconds;
+    private final int warmupSeconds;
+    private final int maxInFlight;
+    private final long p99BudgetMs;
+    private final Map<Operation, Integer> mix;
+    public LoadConfig(
+            String target,
+            int users,
+            double rate,
+            int durationSeconds,
+            int warmupSeconds,
+            int maxInFlight,
+            long p99BudgetMs,
+            Map<Operation, Integer> mix
+    ) {
+        if (users < 2) {
+            throw new IllegalArgumentException("At least 2 users are required");
+        }
+        if (rate <= 0) {
+            throw new IllegalArgumentException("Arrival rate must be positive");
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("Operation mix must have a positive weight");
+        }
+        this.target = target;
+        this.users = users;
+        this.rate = rate;
+        this.durationSeconds = durationSeconds;
+        this.warmupSeconds = warmupSeconds;
+        this.maxInFlight = maxInFlight;
+        this.p99BudgetMs = p99BudgetMs;
+        this.mix = mix;
+    }
+    public static LoadConfig fromEnvironment() {
+        int users = DEFAULT_USERS;
+        if (System.getenv("LOADTEST_USERS") != null) {
+            users = Integer.parseInt(System.getenv("LOADTEST_USERS"));
+        }
+        double rate = DEFAULT_RATE;
+        if (System.getenv("LOADTEST_RATE") != null) {
+            rate = Double.parseDouble(System.getenv("LOADTEST_RATE"));
+        }
+        int durationSeconds = DEFAULT_DURATION_S;
+        if (System.getenv("LOADTEST_DURATION_S") != null) {
+            durationSeconds = Integer.parseInt(System.getenv("LOADTEST_DURATION_S"));
+        }
+        int warmupSeconds = DEFAULT_WARMUP_S;
+        if (System.getenv("LOADTEST_WARMUP_S") != null) {
+            warmupSeconds = Integer.parseInt(System.getenv("LOADTEST_WARMUP_S"));
+        }
+        int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+        if (System.getenv("LOADTEST_MAX_IN_FLIGHT") != null) {
+            maxInFlight = Integer.parseInt(System.getenv("LOADTEST_MAX_IN_FLIGHT"));
+        }
+        long p99BudgetMs = 0;
+        if (System.getenv("LOADTEST_P99_BUDGET_MS") != null) {
+            p99BudgetMs = Long.parseLong(System.getenv("LOADTEST_P99_BUDGET_MS"));
+        }
+        String mix = DEFAULT_MIX;
+        if (System.getenv("LOADTEST_MIX") != null) {
+            mix = System.getenv("LOADTEST_MIX");
+        }
+        return new LoadConfig(
+                System.getenv("LOADTEST_TARGET"),
+                users,
+                rate,
+                durationSeconds,
+                warmupSeconds,
+                maxInFlight,
+                p99BudgetMs,
+                parseMix(mix)
+        );
+    }
+    public static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            if (entry.isBlank()) continue;
+            String[] parts = entry.split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight for " + parts[0]);
+            }
+            mix.put(Operation.parse(parts[0]), weight);
+        }
+        return mix;
+    }
+    public String getTarget() { return target; }
+    public int getUsers() { return users; }
+    public double getRate() { return rate; }
+    public int getDurationSeconds() { return durationSeconds; }
+    public int getWarmupSeconds() { return warmupSeconds; }
+    public int getMaxInFlight() { return maxInFlight; }
+    public long getP99BudgetMs() { return p99BudgetMs; }
+    public Map<Operation, Integer> getMix() { return mix; }
+}
\ No newline at end of file
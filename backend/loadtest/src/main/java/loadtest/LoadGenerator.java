@@ -0,0 +1,236 @@
+package loadtest;
+import core.LatencyHistogram;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+public class LoadGenerator {
+    private static final long DRAIN_TIMEOUT_MS = 30_000;
+    private final LoadConfig config;
+    private final WalletClient client;
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final Semaphore inFlight;
+    private final List<SyntheticUser> users = new ArrayList<>();
+    public LoadGenerator(LoadConfig config, WalletClient client) {
+        this.config = config;
+        this.client = client;
+        this.inFlight = new Semaphore(config.getMaxInFlight());
+        List<Operation> weighted = new ArrayList<>();
+        List<Integer> cumulative = new ArrayList<>();
+        int total = 0;
+        for (Map.Entry<Operation, Integer> entry : config.getMix().entrySet()) {
+            if (entry.getValue() == 0) continue;
+            total += entry.getValue();
+            weighted.add(entry.getKey());
+            cumulative.add(total);
+            stats.put(entry.getKey(), new EndpointStats(entry.getKey()));
+        }
+        this.operations = weighted.toArray(new Operation[0]);
+        this.cumulativeWeights = cumulative.stream().mapToInt(Integer::intValue).toArray();
+    }
+    public void registerUsers() throws Exception {
+        long started = System.nanoTime();
+        for (int i = 0; i < config.getUsers(); i++) {
+            SyntheticUser user = client.registerAndLogin(i);
+            client.fund(user);
+            users.add(user);
+        }
+        System.out.println(
+                "👥 Registered, logged in and funded " + users.size() + " users in "
+                        + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) + " ms"
+        );
+    }
+    public boolean run() throws InterruptedException {
+        if (config.getWarmupSeconds() > 0) {
+            System.out.println("🔥 Warming up for " + config.getWarmupSeconds() + " s");
+            drive(TimeUnit.SECONDS.toNanos(config.getWarmupSeconds()));
+            awaitDrain();
+            for (EndpointStats endpoint : stats.values()) {
+                endpoint.reset();
+            }
+        }
+        System.out.println(
+                "🚦 Offering " + config.getRate() + " req/s for " + config.getDurationSeconds() + " s"
+        );
+        long elapsedNanos = drive(TimeUnit.SECONDS.toNanos(config.getDurationSeconds()));
+        boolean drained = awaitDrain();
+        if (!drained) {
+            System.err.println("⚠️ Requests still in flight after " + DRAIN_TIMEOUT_MS + " ms");
+        }
+        return report(elapsedNanos);
+    }
+    private long drive(long durationNanos) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / config.getRate();
+        long start = System.nanoTime();
+        long end = start + durationNanos;
+        long intended = start;
+        while (true) {
+            intended += (long) (-Math.log(1.0 - random.nextDouble()) * meanIntervalNanos);
+            if (intended >= end) break;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            issue(nextOperation(random), intended, random);
+        }
+        return System.nanoTime() - start;
+    }
+    private void issue(Operation operation, long intended, ThreadLocalRandom random) {
+        EndpointStats endpoint = stats.get(operation);
+        if (!inFlight.tryAcquire()) {
+            endpoint.recordDropped();
+            return;
+        }
+        int sender = random.nextInt(users.size());
+        int receiver = (sender + 1 + random.nextInt(users.size() - 1)) % users.size();
+        try {
+            client.send(operation, users.get(sender), users.get(receiver)).whenComplete((response, error) -> {
+                long latency = System.nanoTime() - intended;
+                if (error != null) {
+                    endpoint.recordFailure(latency);
+                } else {
+                    endpoint.recordResponse(response.statusCode(), latency);
+                }
+                inFlight.release();
+            });
+        } catch (RuntimeException e) {
+            endpoint.recordFailure(System.nanoTime() - intended);
+            inFlight.release();
+        }
+    }
+    private Operation nextOperation(ThreadLocalRandom random) {
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) return operations[i];
+        }
+        return operations[operations.length - 1];
+    }
+    private boolean awaitDrain() throws InterruptedException {
+        if (!inFlight.tryAcquire(config.getMaxInFlight(), DRAIN_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+            return false;
+        }
+        inFlight.release(config.getMaxInFlight());
+        return true;
+    }
+    private boolean report(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.println();
+        System.out.println(String.format(
+                "%-10s %9s %9s %9s %8s %8s %10s %9s %9s %9s %9s %9s",
+                "Endpoint", "Requests", "OK", "Rejected", "Errors", "Dropped",
+                "Req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "Max ms"
+        ));
+        LatencyHistogram total = new LatencyHistogram();
+        long totalOk = 0;
+        long totalRejected = 0;
+        long totalFailed = 0;
+        long totalDropped = 0;
+        for (EndpointStats endpoint : stats.values()) {
+            LatencyHistogram latency = endpoint.getLatency();
+            printRow(
+                    endpoint.getOperation().getLabel(),
+                    latency,
+                    endpoint.getSucceeded(),
+                    endpoint.getRejected(),
+                    endpoint.getFailed(),
+                    endpoint.getDropped(),
+                    seconds
+            );
+            totalOk += endpoint.getSucceeded();
+            totalRejected += endpoint.getRejected();
+            totalFailed += endpoint.getFailed();
+            totalDropped += endpoint.getDropped();
+            total.add(latency);
+        }
+        printRow("total", total, totalOk, totalRejected, totalFailed, totalDropped, seconds);
+        if (config.getP99BudgetMs() <= 0) return true;
+        boolean withinBudget = true;
+        for (EndpointStats endpoint : stats.values()) {
+            long p99Ms = TimeUnit.NANOSECONDS.toMillis(endpoint.getLatency().getValueAtPercentile(99));
+            if (p99Ms > config.getP99BudgetMs()) {
+                System.err.println(
+                        "❌ " + endpoint.getOperation().getLabel() + " p99 " + p99Ms
+                                + " ms exceeds budget of " + config.getP99BudgetMs() + " ms"
+                );
+                withinBudget = false;
+            }
+        }
+        return withinBudget;
+    }
+    private static void printRow(
+            String label,
+            LatencyHistogram latency,
+            long ok,
+            long rejected,
+            long failed,
+            long dropped,
+            double seconds
+    ) {
+        System.out.println(String.format(
+                "%-10s %9d %9d %9d %8d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f",
+                label,
+                latency.getCount(),
+                ok,
+                rejected,
+                failed,
+                dropped,
+                latency.getCount() / seconds,
+                millis(latency.getValueAtPercentile(50)),
+                millis(latency.getValueAtPercentile(90)),
+                millis(latency.getValueAtPercentile(99)),
+                millis(latency.getValueAtPercentile(99.9)),
+                millis(latency.getMax())
+        ));
+    }
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+    public static void main(String[] args) {
+        LoadConfig config = LoadConfig.fromEnvironment();
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(
+                Math.max(2, Runtime.getRuntime().availableProcessors()),
+                r -> {
+                    Thread thread = new Thread(r, "loadtest-client-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+        EmbeddedServer embedded = null;
+        boolean passed = false;
+        try {
+            String target = config.getTarget();
+            if (target == null) {
+                embedded = EmbeddedServer.start();
+                target = embedded.getBaseUrl();
+            }
+            System.out.println("🎯 Load target: " + target);
+            LoadGenerator generator = new LoadGenerator(config, new WalletClient(target, clientExecutor));
+            generator.registerUsers();
+            passed = generator.run();
+        } catch (Exception e) {
+            System.err.println("❌ Load test failed: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            if (embedded != null) {
+                try {
+                    embedded.close();
+                } catch (RuntimeException e) {
+                    System.err.println("❌ Failed to stop server: " + e.getMessage());
+                }
+            }
+            clientExecutor.shutdownNow();
+        }
+        System.exit(passed ? 0 : 1);
+    }
+}
\ No newline at end of file
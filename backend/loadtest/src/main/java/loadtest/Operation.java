@@ -0,0 +1,23 @@
+package loadtest;
+public enum Operation {
+    ADD_MONEY("add-money"),
+    WITHDRAW("withdraw"),
+    TRANSFER("transfer"),
+    HISTORY("history"),
+    SYNC("sync");
+    private final String label;
+    Operation(String label) {
+        this.label = label;
+    }
+    public String getLabel() {
+        return label;
+    }
+    public static Operation parse(String value) {
+        for (Operation operation : values()) {
+            if (operation.label.equalsIgnoreCase(value.trim()) || operation.name().equalsIgnoreCase(value.trim())) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + value);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,14 @@
+package loadtest;
+public class SyntheticUser {
+    private final String username;
+    private final String userId;
+    private final String token;
+    public SyntheticUser(String username, String userId, String token) {
+        this.username = username;
+        this.userId = userId;
+        this.token = token;
+    }
+    public String getUsername() { return username; }
+    public String getUserId() { return userId; }
+    public String getToken() { return token; }
+}
\ No newline at end of file
@@ -0,0 +1,133 @@
+package loadtest;
+import core.CryptoProvider;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+public class WalletClient {
+    private static final String PIN = "123456";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final String FUNDING_AMOUNT = "1000.00";
+    private static final String ADD_MONEY_AMOUNT = "5.00";
+    private static final String WITHDRAW_AMOUNT = "1.00";
+    private static final String TRANSFER_AMOUNT = "1.00";
+    private static final double SYNC_AMOUNT = 0.5;
+    private final HttpClient client;
+    private final String apiUrl;
+    private final AtomicLong clientSequence = new AtomicLong();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    public WalletClient(String baseUrl, Executor executor) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor)
+                .build();
+        this.apiUrl = baseUrl.endsWith("/") ? baseUrl + "api" : baseUrl + "/api";
+    }
+    public SyntheticUser registerAndLogin(int index) throws IOException, InterruptedException {
+        String username = "load_" + runId + "_" + index;
+        String credentials = "{\"username\":\"" + username + "\",\"pin\":\"" + PIN + "\"}";
+        HttpResponse<String> registered = client.send(
+                post("/auth/register", null, credentials),
+                HttpResponse.BodyHandlers.ofString()
+        );
+        if (registered.statusCode() != 200) {
+            throw new IOException("Registration of " + username + " failed: " + registered.body());
+        }
+        HttpResponse<String> login = client.send(
+                post("/auth/login", null, credentials),
+                HttpResponse.BodyHandlers.ofString()
+        );
+        if (login.statusCode() != 200) {
+            throw new IOException("Login of " + username + " failed: " + login.body());
+        }
+        return new SyntheticUser(
+                username,
+                stringField(login.body(), "userId"),
+                stringField(login.body(), "token")
+        );
+    }
+    public void fund(SyntheticUser user) throws IOException, InterruptedException {
+        HttpResponse<String> funded = client.send(
+                post("/wallet/add-money", user, "{\"amount\":\"" + FUNDING_AMOUNT + "\"}"),
+                HttpResponse.BodyHandlers.ofString()
+        );
+        if (funded.statusCode() != 200) {
+            throw new IOException("Funding of " + user.getUsername() + " failed: " + funded.body());
+        }
+    }
+    public CompletableFuture<HttpResponse<Void>> send(
+            Operation operation,
+            SyntheticUser user,
+            SyntheticUser peer
+    ) {
+        return client.sendAsync(request(operation, user, peer), HttpResponse.BodyHandlers.discarding());
+    }
+    private HttpRequest request(Operation operation, SyntheticUser user, SyntheticUser peer) {
+        switch (operation) {
+            case ADD_MONEY:
+                return post("/wallet/add-money", user, "{\"amount\":\"" + ADD_MONEY_AMOUNT + "\"}");
+            case WITHDRAW:
+                return post("/wallet/withdraw", user, "{\"amount\":\"" + WITHDRAW_AMOUNT + "\"}");
+            case TRANSFER:
+                return post(
+                        "/wallet/transfer",
+                        user,
+                        "{\"receiverUsername\":\"" + peer.getUsername() + "\","
+                                + "\"amount\":\"" + TRANSFER_AMOUNT + "\"}"
+                );
+            case HISTORY:
+                return HttpRequest.newBuilder(URI.create(apiUrl + "/transactions/history?limit=20"))
+                        .timeout(REQUEST_TIMEOUT)
+                        .header("Authorization", "Bearer " + user.getToken())
+                        .GET()
+                        .build();
+            case SYNC:
+                return post("/offline/sync", user, syncBody(peer));
+            default:
+                throw new IllegalArgumentException("Unsupported operation: " + operation);
+        }
+    }
+    private String syncBody(SyntheticUser receiver) {
+        String clientTransactionId = "LOAD_" + runId + "_" + clientSequence.incrementAndGet();
+        long timestamp = System.currentTimeMillis();
+        String data = clientTransactionId + "|TRANSFER|" + SYNC_AMOUNT + "|" + timestamp + "|"
+                + receiver.getUserId();
+        String signature = CryptoProvider.toHex(
+                CryptoProvider.sha256(data.getBytes(StandardCharsets.UTF_8))
+        );
+        return "{\"transactions\":[{"
+                + "\"clientTransactionId\":\"" + clientTransactionId + "\","
+                + "\"type\":\"TRANSFER\","
+                + "\"receiverId\":\"" + receiver.getUserId() + "\","
+                + "\"amount\":" + SYNC_AMOUNT + ","
+                + "\"clientTimestamp\":" + timestamp + ","
+                + "\"signature\":\"" + signature + "\""
+                + "}]}";
+    }
+    private HttpRequest post(String path, SyntheticUser user, String body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(apiUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (user != null) {
+            builder.header("Authorization", "Bearer " + user.getToken());
+        }
+        return builder.build();
+    }
+    private static String stringField(String json, String name) throws IOException {
+        Matcher matcher = Pattern.compile("\"" + name + "\"\\s*:\\s*\"([^\"]*)\"").matcher(json);
+        if (!matcher.find()) {
+            throw new IOException("Missing " + name + " in response: " + json);
+        }
+        return matcher.group(1);
+    }
+}
\ No newline at end of file